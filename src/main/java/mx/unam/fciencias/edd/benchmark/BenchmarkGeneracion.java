@@ -0,0 +1,112 @@
+package mx.unam.fciencias.edd.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+import mx.unam.fciencias.edd.laberinto.generador.Algoritmo;
+import mx.unam.fciencias.edd.laberinto.generador.Generador;
+import mx.unam.fciencias.edd.laberinto.generador.GeneradorParalelo;
+import mx.unam.fciencias.edd.util.IntPila;
+
+/**
+ * Compara las casillas por segundo que genera un algoritmo en un solo hilo contra GeneradorParalelo
+ * con distintos números de hilos, y revisa que los Laberintos en paralelo sean perfectos.
+ * Se ejecuta con <code>java -cp target/classes mx.unam.fciencias.edd.benchmark.BenchmarkGeneracion
+ * [algoritmo] [lado] [repeticiones]</code>
+ */
+public class BenchmarkGeneracion {
+
+    public static void main(String[] args) {
+        Algoritmo algoritmo = Algoritmo.buscar(args.length > 0 ? args[0] : "kruskal");
+        int lado = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int repeticiones = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long casillas = (long) lado * lado;
+        System.out.printf("%s, laberinto de %dx%d casillas, %d repeticiones por ronda%n", algoritmo.getNombre(),
+                lado, lado, repeticiones);
+
+        Generador base = algoritmo.getGenerador();
+        double tiempo = medir(repeticiones, () -> generar(base, lado, 1L));
+        System.out.printf("%-24s %10.1f ms %10.1f M casillas/s%n", "Un hilo", tiempo, casillas / tiempo / 1e3);
+        double referencia = tiempo;
+        CuadriculaCompacta esperada = null;
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        for (int hilos = 1; hilos <= procesadores; hilos = hilos < procesadores ? Math.min(hilos * 2, procesadores) : hilos + 1) {
+            ForkJoinPool pool = new ForkJoinPool(hilos);
+            Generador paralelo = new GeneradorParalelo(base, pool, GeneradorParalelo.LADO_REGION);
+            CuadriculaCompacta cuadricula = generar(paralelo, lado, 1L);
+            revisar(cuadricula);
+            if (esperada == null) {
+                esperada = cuadricula;
+            } else if (esperada.huella() != cuadricula.huella()) {
+                throw new IllegalStateException("El laberinto cambió con " + hilos + " hilos");
+            }
+            tiempo = medir(repeticiones, () -> generar(paralelo, lado, 1L));
+            pool.shutdown();
+            System.out.printf("%-24s %10.1f ms %10.1f M casillas/s %6.2fx%n", "Paralelo, " + hilos + " hilos",
+                    tiempo, casillas / tiempo / 1e3, referencia / tiempo);
+        }
+    }
+
+    private static CuadriculaCompacta generar(Generador generador, int lado, long semilla) {
+        CuadriculaCompacta cuadricula = new CuadriculaCompacta(lado, lado);
+        generador.generar(cuadricula, new SplittableRandom(semilla));
+        return cuadricula;
+    }
+
+    /**
+     * Revisa que el Laberinto sea perfecto: que tenga exactamente una Casilla menos de pasos que de
+     * Casillas y que desde la primera se llegue a todas
+     */
+    private static void revisar(CuadriculaCompacta cuadricula) {
+        int total = cuadricula.getAncho() * cuadricula.getAlto();
+        long pasos = 0;
+        for (int i = 0; i < total; i++) {
+            pasos += Integer.bitCount(cuadricula.getPasos(i) & (CuadriculaCompacta.NORTE | CuadriculaCompacta.ESTE));
+        }
+        boolean[] visitadas = new boolean[total];
+        IntPila pendientes = new IntPila();
+        pendientes.push(0);
+        visitadas[0] = true;
+        int alcanzadas = 0;
+        while (!pendientes.esVacio()) {
+            int actual = pendientes.pop();
+            alcanzadas++;
+            for (Direccion direccion : Direccion.values()) {
+                if (cuadricula.hayPaso(actual, direccion)) {
+                    int vecina = cuadricula.vecino(actual, direccion);
+                    if (!visitadas[vecina]) {
+                        visitadas[vecina] = true;
+                        pendientes.push(vecina);
+                    }
+                }
+            }
+        }
+        if (pasos != total - 1 || alcanzadas != total) {
+            throw new IllegalStateException("El laberinto no es perfecto");
+        }
+    }
+
+    /**
+     * Mide el tiempo de una tarea, después de ejecutarla por lo menos un segundo para que el
+     * compilador la optimice. Se toma el mejor promedio de varias rondas, para no contar las
+     * pausas del recolector de basura
+     * @return los milisegundos promedio de la mejor ronda
+     */
+    private static double medir(int repeticiones, Runnable tarea) {
+        long calentamiento = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < calentamiento) {
+            tarea.run();
+        }
+        double mejor = Double.MAX_VALUE;
+        for (int ronda = 0; ronda < 5; ronda++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < repeticiones; i++) {
+                tarea.run();
+            }
+            mejor = Math.min(mejor, (System.nanoTime() - inicio) / 1e6 / repeticiones);
+        }
+        return mejor;
+    }
+}
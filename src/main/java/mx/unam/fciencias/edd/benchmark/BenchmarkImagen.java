@@ -0,0 +1,163 @@
+package mx.unam.fciencias.edd.benchmark;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Laberinto;
+import mx.unam.fciencias.edd.laberinto.generador.Algoritmo;
+import mx.unam.fciencias.edd.laberinto.imagen.LaberintoFlujo;
+import mx.unam.fciencias.edd.laberinto.imagen.MedidasImagen;
+import mx.unam.fciencias.edd.laberinto.imagen.RenderizadorFilas;
+
+/**
+ * Compara el tiempo de escribir el PNG de un Laberinto dibujándolo con Graphics2D y
+ * escribiéndolo con ImageIO, como lo hacía LaberintoImage, contra LaberintoFlujo dibujando y
+ * comprimiendo con distintos números de hilos. Con el nivel 0 casi todo el tiempo es del dibujo,
+ * por lo que se ve cómo escala al usar más núcleos.
+ * Se ejecuta con <code>java -cp target/classes mx.unam.fciencias.edd.benchmark.BenchmarkImagen
+ * [ancho] [alto] [repeticiones]</code>
+ */
+public class BenchmarkImagen {
+
+    public static void main(String[] args) throws IOException {
+        int ancho = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int alto = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int repeticiones = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        CuadriculaCompacta cuadricula = new Laberinto(alto, ancho, Algoritmo.KRUSKAL.getGenerador(), 1L).getCuadricula();
+        System.out.printf("Laberinto de %dx%d casillas, %d repeticiones por ronda%n", ancho, alto, repeticiones);
+
+        // Graphics2D guarda los colores con el byte alfa, que TYPE_INT_RGB ignora
+        int[] esperado = pixeles(dibujarGraphics2D(cuadricula));
+        BufferedImage leida = ImageIO.read(new ByteArrayInputStream(escribirFlujo(cuadricula, Deflater.DEFAULT_COMPRESSION, null)));
+        int[] obtenido = leida.getRGB(0, 0, leida.getWidth(), leida.getHeight(), null, 0, leida.getWidth());
+        for (int i = 0; i < esperado.length; i++) {
+            if ((esperado[i] & 0xFFFFFF) != (obtenido[i] & 0xFFFFFF)) {
+                throw new IllegalStateException("Las imágenes no son iguales");
+            }
+        }
+
+        double base = medir(repeticiones, () -> escribirGraphics2D(cuadricula));
+        System.out.printf("%-24s %10.1f ms%n", "Graphics2D + ImageIO", base);
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        for (int nivel : new int[] {Deflater.DEFAULT_COMPRESSION, Deflater.BEST_SPEED, Deflater.NO_COMPRESSION}) {
+            System.out.printf("Nivel de compresión %d%n", nivel);
+            double serial = medir(repeticiones, () -> escribirFlujo(cuadricula, nivel, null));
+            System.out.printf("%-24s %10.1f ms %6.2fx%n", "Flujo, este hilo", serial, base / serial);
+            for (int hilos = 1; hilos <= procesadores; hilos = hilos < procesadores ? Math.min(hilos * 2, procesadores) : hilos + 1) {
+                ForkJoinPool pool = new ForkJoinPool(hilos);
+                double tiempo = medir(repeticiones, () -> escribirFlujo(cuadricula, nivel, pool));
+                pool.shutdown();
+                System.out.printf("%-24s %10.1f ms %6.2fx %6.2fx este hilo%n", "Flujo, " + hilos + " hilos",
+                        tiempo, base / tiempo, serial / tiempo);
+            }
+        }
+    }
+
+    /**
+     * Escribe el PNG de la imagen dibujada con Graphics2D usando ImageIO
+     */
+    private static byte[] escribirGraphics2D(CuadriculaCompacta cuadricula) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(dibujarGraphics2D(cuadricula), "png", salida);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    /**
+     * Escribe el PNG de la imagen con LaberintoFlujo
+     * @param nivel el nivel de compresión
+     * @param pool donde se dibuja y se comprime en paralelo, null para hacerlo en este hilo
+     */
+    private static byte[] escribirFlujo(CuadriculaCompacta cuadricula, int nivel, ForkJoinPool pool) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try {
+            LaberintoFlujo.escribirPng(cuadricula, salida, MedidasImagen.POR_OMISION, nivel, pool, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    /**
+     * Mide el tiempo de una tarea, después de ejecutarla por lo menos un segundo para que el
+     * compilador la optimice. Se toma el mejor promedio de varias rondas, para no contar las
+     * pausas del recolector de basura
+     * @return los milisegundos promedio de la mejor ronda
+     */
+    private static double medir(int repeticiones, Runnable tarea) {
+        long calentamiento = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < calentamiento) {
+            tarea.run();
+        }
+        double mejor = Double.MAX_VALUE;
+        for (int ronda = 0; ronda < 5; ronda++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < repeticiones; i++) {
+                tarea.run();
+            }
+            mejor = Math.min(mejor, (System.nanoTime() - inicio) / 1e6 / repeticiones);
+        }
+        return mejor;
+    }
+
+    private static int[] pixeles(BufferedImage imagen) {
+        return ((DataBufferInt) imagen.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Dibuja la imagen casilla por casilla con Graphics2D, como lo hacía LaberintoImage
+     */
+    private static BufferedImage dibujarGraphics2D(CuadriculaCompacta cuadricula) {
+        int longitudCasilla = RenderizadorFilas.LONGITUD_CASILLA;
+        int borde = RenderizadorFilas.BORDE;
+        int alto = (cuadricula.getAlto() * (longitudCasilla + borde)) + borde;
+        int ancho = (cuadricula.getAncho() * (longitudCasilla + borde)) + borde;
+        BufferedImage imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = imagen.createGraphics();
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, ancho, alto);
+        g2d.setColor(Color.RED);
+        g2d.fillRect(0, 0, RenderizadorFilas.MARCA, RenderizadorFilas.MARCA);
+        g2d.setColor(Color.WHITE);
+        for (int y = 0; y < cuadricula.getAlto(); y++) {
+            for (int x = 0; x < cuadricula.getAncho(); x++) {
+                int pasos = cuadricula.getPasos(cuadricula.indice(x, y));
+                int xPosicion = x * (longitudCasilla + borde) + borde;
+                int yPosicion = y * (longitudCasilla + borde) + borde;
+                int anchoCasilla = longitudCasilla;
+                int altoCasilla = longitudCasilla;
+                if ((pasos & CuadriculaCompacta.SUR) != 0) {
+                    yPosicion -= borde;
+                    altoCasilla += borde;
+                }
+                if ((pasos & CuadriculaCompacta.NORTE) != 0) {
+                    altoCasilla += borde;
+                }
+                if ((pasos & CuadriculaCompacta.OESTE) != 0) {
+                    xPosicion -= borde;
+                    anchoCasilla += borde;
+                }
+                if ((pasos & CuadriculaCompacta.ESTE) != 0) {
+                    anchoCasilla += borde;
+                }
+                g2d.fillRect(xPosicion, yPosicion, anchoCasilla, altoCasilla);
+            }
+        }
+        g2d.dispose();
+        return imagen;
+    }
+}
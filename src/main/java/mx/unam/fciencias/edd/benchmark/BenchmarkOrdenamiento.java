@@ -0,0 +1,84 @@
+package mx.unam.fciencias.edd.benchmark;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import mx.unam.fciencias.edd.util.Lista;
+
+/**
+ * Compara el tiempo de ordenar una Lista con el merge sort de abajo hacia arriba en un solo
+ * hilo contra el merge sort en paralelo con distintos números de hilos, y revisa que el
+ * resultado esté ordenado.
+ * Se ejecuta con <code>java -cp target/classes mx.unam.fciencias.edd.benchmark.BenchmarkOrdenamiento
+ * [elementos] [repeticiones]</code>
+ */
+public class BenchmarkOrdenamiento {
+
+    public static void main(String[] args) {
+        int elementos = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Integer[] valores = new Integer[elementos];
+        SplittableRandom r = new SplittableRandom(1L);
+        for (int i = 0; i < elementos; i++) {
+            valores[i] = r.nextInt();
+        }
+        Comparator<Integer> comparador = Comparator.naturalOrder();
+        System.out.printf("Lista de %d elementos, %d repeticiones por ronda%n", elementos, repeticiones);
+
+        double base = medir(valores, repeticiones, lista -> lista.ordenar(comparador));
+        System.out.printf("%-24s %10.1f ms%n", "Un hilo", base);
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        for (int hilos = 1; hilos <= procesadores; hilos = hilos < procesadores ? Math.min(hilos * 2, procesadores) : hilos + 1) {
+            ForkJoinPool pool = new ForkJoinPool(hilos);
+            double tiempo = medir(valores, repeticiones, lista -> lista.ordenarParalelo(comparador, pool));
+            pool.shutdown();
+            System.out.printf("%-24s %10.1f ms %6.2fx%n", "Paralelo, " + hilos + " hilos", tiempo, base / tiempo);
+        }
+    }
+
+    /**
+     * Mide el tiempo de ordenar una lista nueva con los valores, sin contar el tiempo de llenarla,
+     * después de ordenar por lo menos un segundo para que el compilador lo optimice. Se toma el
+     * mejor promedio de varias rondas, para no contar las pausas del recolector de basura
+     * @return los milisegundos promedio de la mejor ronda
+     */
+    private static double medir(Integer[] valores, int repeticiones, Consumer<Lista<Integer>> ordenamiento) {
+        long calentamiento = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < calentamiento) {
+            ordenamiento.accept(llenar(valores));
+        }
+        double mejor = Double.MAX_VALUE;
+        for (int ronda = 0; ronda < 5; ronda++) {
+            long total = 0;
+            for (int i = 0; i < repeticiones; i++) {
+                Lista<Integer> lista = llenar(valores);
+                long inicio = System.nanoTime();
+                ordenamiento.accept(lista);
+                total += System.nanoTime() - inicio;
+                revisar(lista);
+            }
+            mejor = Math.min(mejor, total / 1e6 / repeticiones);
+        }
+        return mejor;
+    }
+
+    private static Lista<Integer> llenar(Integer[] valores) {
+        Lista<Integer> lista = new Lista<>();
+        for (Integer valor : valores) {
+            lista.agregar(valor);
+        }
+        return lista;
+    }
+
+    private static void revisar(Lista<Integer> lista) {
+        Integer anterior = null;
+        for (Integer valor : lista) {
+            if (anterior != null && anterior > valor) {
+                throw new IllegalStateException("La lista no quedó ordenada");
+            }
+            anterior = valor;
+        }
+    }
+}
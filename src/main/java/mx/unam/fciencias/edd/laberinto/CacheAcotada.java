@@ -0,0 +1,126 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * CacheAcotada guarda valores por llave con la memoria acotada: al pasarse del límite se sacan los
+ * que tienen más tiempo sin usarse. Lleva la cuenta de los aciertos, los fallos y los valores
+ * desalojados
+ * @param <V> el tipo de los valores guardados
+ */
+public class CacheAcotada<V> {
+
+    /**
+     * Los valores en orden de uso, del que tiene más tiempo sin usarse al más reciente
+     */
+    private final LinkedHashMap<String, V> valores = new LinkedHashMap<>(16, 0.75f, true);
+    private final ToLongFunction<V> tamanio;
+    private final long memoriaMaxima;
+    private final long valorMaximo;
+    private long memoria;
+    private long aciertos;
+    private long fallos;
+    private long desalojados;
+
+    /**
+     * Crea la caché
+     * @param memoriaMaxima la memoria que pueden ocupar en total los valores guardados
+     * @param valorMaximo el tamaño máximo de un valor para guardarlo
+     * @param tamanio da el número de bytes que ocupa un valor
+     */
+    public CacheAcotada(long memoriaMaxima, long valorMaximo, ToLongFunction<V> tamanio) {
+        this.memoriaMaxima = memoriaMaxima;
+        this.valorMaximo = Math.min(valorMaximo, memoriaMaxima);
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * Obtiene un valor guardado y lo marca como recién usado
+     * @param llave la llave del valor
+     * @return el valor, o null si no está guardado
+     */
+    public synchronized V obtener(String llave) {
+        V valor = valores.get(llave);
+        if (valor == null) {
+            fallos++;
+        } else {
+            aciertos++;
+        }
+        return valor;
+    }
+
+    /**
+     * Guarda un valor, sacando a los que tienen más tiempo sin usarse si hace falta memoria.
+     * Los valores más grandes que el tamaño máximo no se guardan
+     * @param llave la llave del valor
+     * @param valor el valor
+     */
+    public synchronized void guardar(String llave, V valor) {
+        long bytes = tamanio.applyAsLong(valor);
+        if (bytes > valorMaximo) {
+            return;
+        }
+        V anterior = valores.put(llave, valor);
+        if (anterior != null) {
+            memoria -= tamanio.applyAsLong(anterior);
+        }
+        memoria += bytes;
+        Iterator<V> iterador = valores.values().iterator();
+        while (memoria > memoriaMaxima && iterador.hasNext()) {
+            V desalojado = iterador.next();
+            iterador.remove();
+            memoria -= tamanio.applyAsLong(desalojado);
+            desalojados++;
+        }
+    }
+
+    /**
+     * Regresa el tamaño máximo de un valor para guardarlo
+     * @return el número de bytes
+     */
+    public long getValorMaximo() {
+        return valorMaximo;
+    }
+
+    /**
+     * Regresa el número de valores guardados
+     * @return el número de valores
+     */
+    public synchronized int getTamanio() {
+        return valores.size();
+    }
+
+    /**
+     * Regresa la memoria que ocupan los valores guardados
+     * @return el número de bytes
+     */
+    public synchronized long getMemoria() {
+        return memoria;
+    }
+
+    /**
+     * Regresa cuántas veces se encontró el valor pedido
+     * @return el número de aciertos
+     */
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * Regresa cuántas veces no se encontró el valor pedido
+     * @return el número de fallos
+     */
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * Regresa cuántos valores se han sacado por falta de memoria
+     * @return el número de valores desalojados
+     */
+    public synchronized long getDesalojados() {
+        return desalojados;
+    }
+}
@@ -0,0 +1,55 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import mx.unam.fciencias.edd.laberinto.imagen.FormatoImagen;
+import mx.unam.fciencias.edd.laberinto.imagen.MedidasImagen;
+
+/**
+ * CacheImagenes guarda las imágenes ya codificadas de los Laberintos. La imagen queda determinada
+ * por el SHA-256 de la cuadrícula del Laberinto, sus dimensiones y los parámetros con los que se
+ * dibuja, y la codificación siempre da los mismos bytes, así que la llave también sirve como ETag
+ * fuerte. La memoria de las imágenes está acotada: al pasarse del límite se sacan las que tienen
+ * más tiempo sin usarse
+ */
+@Component
+public class CacheImagenes extends CacheAcotada<byte[]> {
+
+    /**
+     * Crea la caché
+     * @param memoriaMaxima la memoria que pueden ocupar en total las imágenes guardadas
+     * @param imagenMaxima el tamaño máximo de una imagen para guardarla
+     */
+    public CacheImagenes(@Value("${laberinto.imagen.cache.memoria-maxima:64MB}") DataSize memoriaMaxima,
+            @Value("${laberinto.imagen.cache.imagen-maxima:4MB}") DataSize imagenMaxima) {
+        super(memoriaMaxima.toBytes(), imagenMaxima.toBytes(), imagen -> imagen.length);
+    }
+
+    /**
+     * Crea la llave de la imagen de un Laberinto
+     * @param laberinto el Laberinto
+     * @param formato el formato de la imagen
+     * @param medidas las medidas en px de las casillas y las paredes
+     * @param nivel el nivel de compresión de deflate de los PNG
+     * @param paralelo si los PNG se comprimen en paralelo, que cambia los bytes de la imagen
+     * @return la llave con la que se guarda la imagen
+     */
+    public static String llave(Laberinto laberinto, FormatoImagen formato, MedidasImagen medidas, int nivel,
+            boolean paralelo) {
+        int longitudCasilla = medidas.getLongitudCasilla();
+        int borde = medidas.getBorde();
+        CuadriculaCompacta cuadricula = laberinto.getCuadricula();
+        String llave = String.format("%s-%dx%d-%s", laberinto.getDigesto(), cuadricula.getAncho(),
+                cuadricula.getAlto(), formato.getNombre());
+        switch (formato) {
+            case TEXTO:
+                return llave;
+            case SVG:
+                return llave + "-" + longitudCasilla + "-" + borde;
+            default:
+                return llave + "-" + longitudCasilla + "-" + borde + "-z" + nivel + (paralelo ? "p" : "");
+        }
+    }
+}
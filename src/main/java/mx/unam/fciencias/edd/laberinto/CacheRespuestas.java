@@ -0,0 +1,86 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * CacheRespuestas guarda las respuestas ya serializadas de los Laberintos generados con semilla.
+ * Como un Laberinto queda determinado por sus dimensiones, su algoritmo y su semilla, volver a
+ * pedirlo no necesita generarlo ni serializarlo otra vez. La memoria de las respuestas está
+ * acotada: al pasarse del límite se sacan las que tienen más tiempo sin usarse
+ */
+@Component
+public class CacheRespuestas extends CacheAcotada<CacheRespuestas.Respuesta> {
+
+    /**
+     * Una respuesta guardada, con el id del Laberinto registrado al que corresponde y la
+     * velocidad con la que se generó. No cambia: para cambiar el id se guarda otra
+     */
+    public static class Respuesta {
+        private final byte[] cuerpo;
+        private final String id;
+        private final double casillasPorSegundo;
+
+        private Respuesta(byte[] cuerpo, String id, double casillasPorSegundo) {
+            this.cuerpo = cuerpo;
+            this.id = id;
+            this.casillasPorSegundo = casillasPorSegundo;
+        }
+
+        /**
+         * Regresa los bytes de la respuesta. No deben modificarse
+         * @return el cuerpo serializado
+         */
+        public byte[] getCuerpo() {
+            return cuerpo;
+        }
+
+        /**
+         * Regresa el id con el que se registró el Laberinto, puede que ya no esté en el registro
+         * @return el id del Laberinto
+         */
+        public String getId() {
+            return id;
+        }
+
+        public double getCasillasPorSegundo() {
+            return casillasPorSegundo;
+        }
+    }
+
+    /**
+     * Crea la caché
+     * @param memoriaMaxima la memoria que pueden ocupar en total las respuestas guardadas
+     * @param respuestaMaxima el tamaño máximo de una respuesta para guardarla
+     */
+    public CacheRespuestas(@Value("${laberinto.cache.memoria-maxima:32MB}") DataSize memoriaMaxima,
+            @Value("${laberinto.cache.respuesta-maxima:1MB}") DataSize respuestaMaxima) {
+        super(memoriaMaxima.toBytes(), respuestaMaxima.toBytes(), respuesta -> respuesta.cuerpo.length);
+    }
+
+    /**
+     * Crea la llave de un Laberinto
+     * @param ancho el número de casillas de ancho
+     * @param alto el número de casillas de alto
+     * @param algoritmo el nombre del algoritmo de generación
+     * @param semilla la semilla de la generación
+     * @param formato el tipo de contenido de la respuesta
+     * @return la llave con la que se guarda su respuesta
+     */
+    public static String llave(int ancho, int alto, String algoritmo, long semilla, String formato) {
+        return ancho + "x" + alto + ":" + algoritmo + ":" + semilla + ":" + formato;
+    }
+
+    /**
+     * Guarda una respuesta, sacando a las que tienen más tiempo sin usarse si hace falta memoria.
+     * Las respuestas más grandes que el tamaño máximo no se guardan
+     * @param llave la llave del Laberinto
+     * @param cuerpo los bytes de la respuesta
+     * @param id el id con el que se registró el Laberinto
+     * @param casillasPorSegundo la velocidad con la que se generó el Laberinto
+     */
+    public void guardar(String llave, byte[] cuerpo, String id, double casillasPorSegundo) {
+        guardar(llave, new Respuesta(cuerpo, id, casillasPorSegundo));
+    }
+}
@@ -1,24 +1,18 @@
 package mx.unam.fciencias.edd.laberinto;
 
 import java.io.Serializable;
-import java.util.Random;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
-import mx.unam.fciencias.edd.util.Lista;
-
 /**
  * Una Casilla es un cuadro en el Laberinto, la cual tiene posición y puede
- * tener hasta cuatro paredes
+ * tener hasta cuatro paredes. El Laberinto guarda sus paredes en una
+ * CuadriculaCompacta, las Casillas se crean a partir de ella cuando se necesitan
  */
 public class Casilla implements Serializable {
 
     private static final long serialVersionUID = -5759297859583844470L;
 
-    private enum PuntoCardinal {
-        NORTE, SUR, ESTE, OESTE
-    }
-
     /**
      * Indica si está habilitada la Pared Norte
      */
@@ -48,10 +42,6 @@ public class Casilla implements Serializable {
      */
     @JsonIgnore
     private Laberinto laberinto;
-    /**
-     * Marca si la Casilla ya ha sido visitada
-     */
-    private boolean visitada;
 
     /**
      * Genera una casilla vacia
@@ -62,208 +52,83 @@ public class Casilla implements Serializable {
     }
 
     /**
-     * Crea una casilla para que pueda ser utilizada en la generación del Laberinto
+     * Crea una casilla a partir de la cuadrícula del Laberinto, copiando sus paredes
      * 
      * @param x         la x-coordenada en el laberinto
      * @param y         la y-coordenada en el laberinto
-     * @param laberinto el laberinto donde va a pertenecer la casilla
+     * @param laberinto el laberinto donde pertenece la casilla
      */
     protected Casilla(int x, int y, Laberinto laberinto) {
-        this.norte = this.sur = this.este = this.oeste = false;
+        CuadriculaCompacta cuadricula = laberinto.getCuadricula();
+        int pasos = cuadricula.getPasos(cuadricula.indice(x, y));
+        this.norte = (pasos & CuadriculaCompacta.NORTE) != 0;
+        this.sur = (pasos & CuadriculaCompacta.SUR) != 0;
+        this.este = (pasos & CuadriculaCompacta.ESTE) != 0;
+        this.oeste = (pasos & CuadriculaCompacta.OESTE) != 0;
         this.x = x;
         this.y = y;
         this.laberinto = laberinto;
-        this.visitada = false;
-    }
-
-    /**
-     * Muestra si no hay vecinos sin visitar
-     * 
-     * @return true si no hay vecinos sin visitar, false en caso contrario
-     */
-    public boolean noHayVecinosSinVisitar() {
-        Lista<Casilla> vecinos = obtenerVecinos();
-        boolean todosVisitados = true;
-        for (Casilla vecino : vecinos) {
-            if (!vecino.fueVisitado()) {
-                todosVisitados = false;
-                break;
-            }
-        }
-        return todosVisitados;
     }
 
     /**
-     * Muestra si no hay vecinos sin visitar
+     * Muestra si hay paso hacia una Casilla adyacente
      * 
-     * @return true si no hay vecinos sin visitar, false en caso contrario
+     * @param vecino la Casilla adyacente
+     * @return true si hay paso, false en caso contrario
      */
-    public boolean noHayVecinosSinVisitarConPaso() {
-        Lista<Casilla> vecinos = obtenerVecinos();
-        boolean todosVisitados = true;
-        for (Casilla vecino : vecinos) {
-            if (!vecino.fueVisitado() && hayPaso(vecino)) {
-                todosVisitados = false;
-                break;
-            }
-        }
-        return todosVisitados;
-    }
-
-
-
-    /**
-     * Obtiene un vecino al azar que no ha sido visitado
-     * 
-     * @return una Casilla adyacente que no ha sido visitada
-     */
-    public Casilla obtenerVecinoSinVisitar() {
-        Lista<Casilla> vecinos = obtenerVecinos();
-        Random r = new Random();
-        int rango = vecinos.longitud();
-        do {
-            int posicion = r.nextInt(rango);
-            Casilla vecino = vecinos.getElemento(posicion);
-            if (!vecino.fueVisitado()) {
-                return vecino;
-            } else {
-                rango--;
-                vecinos.eliminar(vecino);
-            }
-        } while (!vecinos.esVacia());
-        return new Casilla();
+    public boolean hayPaso(Casilla vecino) {
+        return hayPaso(obtenerDireccion(vecino));
     }
 
     /**
-     * Obtiene un vecino al azar que no ha sido visitado y donde hay paso
+     * Muestra si hay paso en una dirección
      * 
-     * @return
+     * @param direccion la dirección
+     * @return true si hay paso, false en caso contrario
      */
-    public Casilla obtenerVecinoDisponible() {
-        Lista<Casilla> vecinos = obtenerVecinos();
-        Random r = new Random();
-        int rango = vecinos.longitud();
-        do {
-            int posicion = r.nextInt(rango);
-            Casilla vecino = vecinos.getElemento(posicion);
-            if (!vecino.fueVisitado() && hayPaso(vecino)) {
-                return vecino;
-            } else {
-                rango--;
-                vecinos.eliminar(vecino);
-            }
-        } while (!vecinos.esVacia());
-        return new Casilla();
-    }
-
-    public boolean hayPaso(Casilla vecino) {
-
-        switch (obtenerPuntoCardinal(vecino)) {
+    public boolean hayPaso(Direccion direccion) {
+        switch (direccion) {
             case NORTE:
                 return norte;
             case SUR:
                 return sur;
-
             case ESTE:
                 return este;
-            case OESTE:
-                return oeste;
             default:
-                return false;
-        }
-
-    }
-
-    /**
-     * Obtiene la lista de vecinos que son adyacentes a la Casilla (que comparten
-     * pared)
-     * 
-     * @return una Lista Casillas adyacentes
-     */
-    public Lista<Casilla> obtenerVecinos() {
-        Lista<Casilla> vecinos = new Lista<Casilla>();
-        
-        // Se añaden las coordenadas así para poder recorrer los vecinos más fácilmente
-        int[][] vecinosCoordenadas = { { y, x + 1 }, { y, x - 1 }, { y + 1, x }, { y - 1, x } };
-        for (int i = 0; i < vecinosCoordenadas.length; i++) {
-            int x = vecinosCoordenadas[i][1];
-            int y = vecinosCoordenadas[i][0];
-
-            try {
-                Casilla casilla = laberinto.obtenerCasilla(x, y);
-                vecinos.agregar(casilla);
-            } catch (IllegalArgumentException e) {
-                continue;
-            } 
+                return oeste;
         }
-        return vecinos;
     }
 
     /**
-     * Devuelve si la la casilla ya ha sido visitada
+     * Obtiene la Casilla adyacente en una dirección
      * 
-     * @return true si la casilla ya ha sido visitada, false en caso contrario
-     */
-    public boolean fueVisitado() {
-        return visitada;
-    }
-
-    /**
-     * Marca a la Casilla como visitada
-     */
-    public void visitar() {
-        this.visitada = true;
-    }
-
-    /**
-     * Marca a la Casilla ha su estado de no visitado
-     */
-    public void desmarcarVisitada() {
-        this.visitada = false;
-    }
-
-    /**
-     * Visita una Casilla adyacente si no ha sido visitada
-     * 
-     * @param casilla la Casilla a visitar
-     */
-    public void visitar(Casilla casilla) {
-        Lista<Casilla> vecinos = obtenerVecinos();
-        if (vecinos.contiene(casilla) && !casilla.fueVisitado()) {
-            switch (obtenerPuntoCardinal(casilla)) {
-                case NORTE:
-                    norte = casilla.sur = casilla.visitada = true;
-                    break;
-                case SUR:
-                    sur = casilla.norte = casilla.visitada = true;
-                    break;
-                case ESTE:
-                    este = casilla.oeste = casilla.visitada = true;
-                    break;
-                case OESTE:
-                    oeste = casilla.este = casilla.visitada = true;
-                    break;
-                default:
-                    break;
-            }
+     * @param direccion la dirección de la vecina
+     * @return la Casilla adyacente, o null si la dirección sale del Laberinto
+     */
+    public Casilla obtenerVecino(Direccion direccion) {
+        int x = this.x + direccion.getDx();
+        int y = this.y + direccion.getDy();
+        if (x < 0 || x >= laberinto.getAncho() || y < 0 || y >= laberinto.getAlto()) {
+            return null;
         }
+        return new Casilla(x, y, laberinto);
     }
 
     /**
-     * Obtiene el Punto Cardinal de una Casilla adyacente
+     * Obtiene la dirección en la que se encuentra una Casilla adyacente
      * 
      * @param casilla la Casilla adyacente
-     * @return el Punto Cardinal
+     * @return la Dirección
      */
-    private PuntoCardinal obtenerPuntoCardinal(Casilla casilla) {
+    private Direccion obtenerDireccion(Casilla casilla) {
         if (casilla.x - x == 1) {
-            return PuntoCardinal.ESTE;
+            return Direccion.ESTE;
         } else if (casilla.x - x == -1) {
-            return PuntoCardinal.OESTE;
+            return Direccion.OESTE;
         } else if (casilla.y - y == 1) {
-            return PuntoCardinal.NORTE;
+            return Direccion.NORTE;
         } else {
-            return PuntoCardinal.SUR;
+            return Direccion.SUR;
         }
     }
 
@@ -317,8 +182,8 @@ public class Casilla implements Serializable {
 
     @Override
     public String toString() {
-        return "Casilla [este=" + este + ", norte=" + norte + ", oeste=" + oeste + ", sur=" + sur + ", visitada="
-                + visitada + ", x=" + x + ", y=" + y + "]";
+        return "Casilla [este=" + este + ", norte=" + norte + ", oeste=" + oeste + ", sur=" + sur + ", x=" + x
+                + ", y=" + y + "]";
     }
 
     @Override
@@ -0,0 +1,283 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Una CuadriculaCompacta guarda el estado de todas las Casillas de un Laberinto en un
+ * arreglo de bytes, un byte por Casilla, en lugar de un objeto por Casilla. Cada byte
+ * guarda en sus bits los pasos abiertos de la Casilla y si ya fue visitada.
+ * Las Casillas se identifican por su índice <code>y * ancho + x</code>
+ */
+public class CuadriculaCompacta {
+
+    /**
+     * Bit que indica que hay paso hacia la Casilla con y-coordenada mayor
+     */
+    public static final int NORTE = 1;
+    /**
+     * Bit que indica que hay paso hacia la Casilla con y-coordenada menor
+     */
+    public static final int SUR = 1 << 1;
+    /**
+     * Bit que indica que hay paso hacia la Casilla con x-coordenada mayor
+     */
+    public static final int ESTE = 1 << 2;
+    /**
+     * Bit que indica que hay paso hacia la Casilla con x-coordenada menor
+     */
+    public static final int OESTE = 1 << 3;
+    /**
+     * Bit que marca a la Casilla como visitada
+     */
+    public static final int VISITADA = 1 << 4;
+
+    /**
+     * Máscara con todos los bits de paso
+     */
+    private static final int PASOS = NORTE | SUR | ESTE | OESTE;
+
+    /**
+     * Los bits de cada Casilla, indexados por <code>y * ancho + x</code>
+     */
+    private final byte[] casillas;
+    /**
+     * El número de casillas que tiene de alto la cuadrícula
+     */
+    private final int alto;
+    /**
+     * El número de casillas que tiene de ancho la cuadrícula
+     */
+    private final int ancho;
+
+    /**
+     * Crea una cuadrícula con todas las paredes habilitadas y ninguna Casilla visitada
+     * @param alto el número de casillas de alto
+     * @param ancho el número de casillas de ancho
+     * @throws IllegalArgumentException si las dimensiones no son positivas o son demasiado grandes
+     */
+    public CuadriculaCompacta(int alto, int ancho) {
+        if (alto <= 0 || ancho <= 0) {
+            throw new IllegalArgumentException("Las dimensiones deben ser positivas");
+        }
+        if ((long) alto * ancho > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("La cuadrícula es demasiado grande: " + ancho + "x" + alto);
+        }
+        this.alto = alto;
+        this.ancho = ancho;
+        this.casillas = new byte[alto * ancho];
+    }
+
+    /**
+     * Obtiene el índice de una Casilla a partir de sus coordenadas
+     * @param x la coordenada x
+     * @param y la coordenada y
+     * @return el índice de la Casilla
+     */
+    public int indice(int x, int y) {
+        return y * ancho + x;
+    }
+
+    /**
+     * Obtiene la x-coordenada de una Casilla a partir de su índice
+     * @param indice el índice de la Casilla
+     * @return la coordenada x
+     */
+    public int x(int indice) {
+        return indice % ancho;
+    }
+
+    /**
+     * Obtiene la y-coordenada de una Casilla a partir de su índice
+     * @param indice el índice de la Casilla
+     * @return la coordenada y
+     */
+    public int y(int indice) {
+        return indice / ancho;
+    }
+
+    /**
+     * Obtiene los bits de paso de una Casilla
+     * @param indice el índice de la Casilla
+     * @return una combinación de NORTE, SUR, ESTE y OESTE
+     */
+    public int getPasos(int indice) {
+        return casillas[indice] & PASOS;
+    }
+
+    /**
+     * Muestra si una Casilla tiene paso en una dirección
+     * @param indice el índice de la Casilla
+     * @param paso el bit de la dirección
+     * @return true si hay paso, false en caso contrario
+     */
+    public boolean hayPaso(int indice, int paso) {
+        return (casillas[indice] & paso) != 0;
+    }
+
+    /**
+     * Abre el paso de una Casilla en una dirección. Sólo modifica a esa Casilla, la
+     * Casilla vecina tiene que abrir el paso contrario
+     * @param indice el índice de la Casilla
+     * @param paso el bit de la dirección
+     */
+    public void abrirPaso(int indice, int paso) {
+        casillas[indice] |= paso;
+    }
+
+    /**
+     * Muestra si una Casilla tiene paso en una dirección
+     * @param indice el índice de la Casilla
+     * @param direccion la dirección
+     * @return true si hay paso, false en caso contrario
+     */
+    public boolean hayPaso(int indice, Direccion direccion) {
+        return (casillas[indice] & direccion.getPaso()) != 0;
+    }
+
+    /**
+     * Obtiene el índice de la Casilla vecina en una dirección, sin crear objetos ni
+     * lanzar excepciones
+     * @param indice el índice de la Casilla
+     * @param direccion la dirección de la vecina
+     * @return el índice de la vecina, o -1 si la dirección sale de la cuadrícula
+     */
+    public int vecino(int indice, Direccion direccion) {
+        switch (direccion) {
+            case NORTE:
+                return indice < casillas.length - ancho ? indice + ancho : -1;
+            case SUR:
+                return indice >= ancho ? indice - ancho : -1;
+            case ESTE:
+                return indice % ancho + 1 < ancho ? indice + 1 : -1;
+            default:
+                return indice % ancho > 0 ? indice - 1 : -1;
+        }
+    }
+
+    /**
+     * Abre el paso entre una Casilla y su vecina en una dirección, en ambas Casillas
+     * @param indice el índice de la Casilla
+     * @param direccion la dirección de la vecina
+     * @return el índice de la vecina
+     */
+    public int conectar(int indice, Direccion direccion) {
+        int vecino = vecino(indice, direccion);
+        casillas[indice] |= direccion.getPaso();
+        casillas[vecino] |= direccion.getOpuesta().getPaso();
+        return vecino;
+    }
+
+    /**
+     * Devuelve si la Casilla ya ha sido visitada
+     * @param indice el índice de la Casilla
+     * @return true si la casilla ya ha sido visitada, false en caso contrario
+     */
+    public boolean fueVisitada(int indice) {
+        return (casillas[indice] & VISITADA) != 0;
+    }
+
+    /**
+     * Marca a la Casilla como visitada
+     * @param indice el índice de la Casilla
+     */
+    public void visitar(int indice) {
+        casillas[indice] |= VISITADA;
+    }
+
+    /**
+     * Marca a todas las Casillas como no visitadas, sin modificar sus pasos
+     */
+    public void desmarcarVisitadas() {
+        for (int i = 0; i < casillas.length; i++) {
+            casillas[i] &= PASOS;
+        }
+    }
+
+    /**
+     * Calcula una huella de 64 bits de los pasos de la cuadrícula, con FNV-1a. Dos cuadrículas con
+     * los mismos pasos tienen la misma huella aunque tengan Casillas visitadas distintas
+     * @return la huella de la cuadrícula
+     */
+    public long huella() {
+        long huella = 0xcbf29ce484222325L;
+        huella = (huella ^ alto) * 0x100000001b3L;
+        huella = (huella ^ ancho) * 0x100000001b3L;
+        for (byte casilla : casillas) {
+            huella = (huella ^ (casilla & PASOS)) * 0x100000001b3L;
+        }
+        return huella;
+    }
+
+    /**
+     * Calcula el SHA-256 de las dimensiones y los pasos de la cuadrícula. A diferencia de la
+     * huella, dos cuadrículas distintas no tienen en la práctica el mismo digesto
+     * @return los 32 bytes del digesto
+     */
+    public byte[] digesto() {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Toda implementación de Java tiene SHA-256
+            throw new IllegalStateException(e);
+        }
+        sha.update(ByteBuffer.allocate(8).putInt(alto).putInt(ancho).array());
+        // Sin los bits de visitada, por partes para no copiar toda la cuadrícula
+        byte[] pasos = new byte[Math.min(casillas.length, 1 << 16)];
+        for (int inicio = 0; inicio < casillas.length; inicio += pasos.length) {
+            int longitud = Math.min(pasos.length, casillas.length - inicio);
+            for (int i = 0; i < longitud; i++) {
+                pasos[i] = (byte) (casillas[inicio + i] & PASOS);
+            }
+            sha.update(pasos, 0, longitud);
+        }
+        return sha.digest();
+    }
+
+    /**
+     * Regresa el número de Casillas de la cuadrícula
+     * @return alto * ancho
+     */
+    public int getTamanio() {
+        return casillas.length;
+    }
+
+    /**
+     * Estima los bytes que ocupa la cuadrícula en memoria
+     * @return el número aproximado de bytes
+     */
+    public long getMemoria() {
+        // Encabezados del objeto y del arreglo
+        return casillas.length + 32L;
+    }
+
+    public int getAlto() {
+        return alto;
+    }
+
+    public int getAncho() {
+        return ancho;
+    }
+
+    @Override
+    public String toString() {
+        return "CuadriculaCompacta [alto=" + alto + ", ancho=" + ancho + "]";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof CuadriculaCompacta) {
+            CuadriculaCompacta c = (CuadriculaCompacta) obj;
+            return c.alto == alto && c.ancho == ancho && Arrays.equals(c.casillas, casillas);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(casillas);
+    }
+}
@@ -0,0 +1,68 @@
+package mx.unam.fciencias.edd.laberinto;
+
+/**
+ * Las cuatro direcciones en las que una Casilla puede tener una vecina. Cada dirección
+ * sabe cómo cambian las coordenadas al moverse y cuál es su bit de paso en la
+ * CuadriculaCompacta
+ */
+public enum Direccion {
+
+    NORTE(0, 1, CuadriculaCompacta.NORTE),
+    SUR(0, -1, CuadriculaCompacta.SUR),
+    ESTE(1, 0, CuadriculaCompacta.ESTE),
+    OESTE(-1, 0, CuadriculaCompacta.OESTE);
+
+    /**
+     * Las direcciones en el orden de su declaración. Se guardan para no crear un
+     * arreglo nuevo con cada llamada a values()
+     */
+    public static final Direccion[] DIRECCIONES = values();
+
+    /**
+     * Lo que cambia la x-coordenada al moverse en esta dirección
+     */
+    private final int dx;
+    /**
+     * Lo que cambia la y-coordenada al moverse en esta dirección
+     */
+    private final int dy;
+    /**
+     * El bit de paso de la dirección
+     */
+    private final int paso;
+
+    private Direccion(int dx, int dy, int paso) {
+        this.dx = dx;
+        this.dy = dy;
+        this.paso = paso;
+    }
+
+    /**
+     * Obtiene la dirección contraria
+     * @return la dirección contraria
+     */
+    public Direccion getOpuesta() {
+        switch (this) {
+            case NORTE:
+                return SUR;
+            case SUR:
+                return NORTE;
+            case ESTE:
+                return OESTE;
+            default:
+                return ESTE;
+        }
+    }
+
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+
+    public int getPaso() {
+        return paso;
+    }
+}
@@ -0,0 +1,59 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * EscritorJson escribe las Casillas de un Laberinto en JSON directamente desde su
+ * CuadriculaCompacta, fila por fila, sin crear objetos Casilla ni guardar el documento
+ * completo en memoria
+ */
+public class EscritorJson {
+
+    private EscritorJson() {
+    }
+
+    /**
+     * Escribe las Casillas de un Laberinto. En la forma normal cada Casilla es un objeto con los
+     * mismos atributos que la serialización de Casilla, en un arreglo por fila. En la forma compacta
+     * cada Casilla es el número con sus bits de paso: norte=1, sur=2, este=4 y oeste=8
+     * @param laberinto el Laberinto
+     * @param fabrica la fábrica de generadores de JSON
+     * @param salida donde se escribe el JSON, no se cierra
+     * @param compacto true para la forma compacta
+     * @throws IOException si no se pudo escribir en la salida
+     */
+    public static void escribir(Laberinto laberinto, JsonFactory fabrica, OutputStream salida, boolean compacto)
+            throws IOException {
+        CuadriculaCompacta cuadricula = laberinto.getCuadricula();
+        int ancho = cuadricula.getAncho();
+        int alto = cuadricula.getAlto();
+        try (JsonGenerator generador = fabrica.createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generador.writeStartArray();
+            for (int y = 0; y < alto; y++) {
+                generador.writeStartArray();
+                for (int x = 0; x < ancho; x++) {
+                    int pasos = cuadricula.getPasos(cuadricula.indice(x, y));
+                    if (compacto) {
+                        generador.writeNumber(pasos);
+                    } else {
+                        generador.writeStartObject();
+                        generador.writeBooleanField("norte", (pasos & CuadriculaCompacta.NORTE) != 0);
+                        generador.writeBooleanField("sur", (pasos & CuadriculaCompacta.SUR) != 0);
+                        generador.writeBooleanField("este", (pasos & CuadriculaCompacta.ESTE) != 0);
+                        generador.writeBooleanField("oeste", (pasos & CuadriculaCompacta.OESTE) != 0);
+                        generador.writeNumberField("x", x);
+                        generador.writeNumberField("y", y);
+                        generador.writeEndObject();
+                    }
+                }
+                generador.writeEndArray();
+            }
+            generador.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import java.nio.ByteBuffer;
+
+/**
+ * FormatoBinario codifica un Laberinto en bytes, como alternativa compacta al JSON de sus
+ * Casillas. El formato empieza con un encabezado de 20 bytes: los bytes <code>LAB</code>, la
+ * versión, el ancho y el alto como enteros de 32 bits y la semilla como entero de 64 bits, todos
+ * en big-endian. Después vienen los bits de paso de cada Casilla, en el orden de su índice
+ * <code>y * ancho + x</code>, dos Casillas por byte: la de índice par en los 4 bits bajos y la de
+ * índice impar en los 4 bits altos
+ */
+public class FormatoBinario {
+
+    /**
+     * El tipo de contenido con el que se pide el formato
+     */
+    public static final String TIPO = "application/x-laberinto";
+    /**
+     * La versión del formato
+     */
+    public static final int VERSION = 1;
+    /**
+     * El número de bytes del encabezado
+     */
+    public static final int ENCABEZADO = 20;
+
+    private FormatoBinario() {
+    }
+
+    /**
+     * Codifica un Laberinto
+     * @param laberinto el Laberinto
+     * @return los bytes del Laberinto
+     */
+    public static byte[] codificar(Laberinto laberinto) {
+        CuadriculaCompacta cuadricula = laberinto.getCuadricula();
+        int tamanio = cuadricula.getTamanio();
+        Long semilla = laberinto.getSemilla();
+        ByteBuffer buffer = ByteBuffer.allocate(ENCABEZADO + (tamanio + 1) / 2);
+        buffer.put((byte) 'L').put((byte) 'A').put((byte) 'B').put((byte) VERSION);
+        buffer.putInt(cuadricula.getAncho());
+        buffer.putInt(cuadricula.getAlto());
+        buffer.putLong(semilla != null ? semilla : 0);
+        byte[] bytes = buffer.array();
+        for (int i = 0; i < tamanio; i++) {
+            bytes[ENCABEZADO + (i >> 1)] |= cuadricula.getPasos(i) << ((i & 1) << 2);
+        }
+        return bytes;
+    }
+
+    /**
+     * Decodifica los pasos de un Laberinto
+     * @param bytes los bytes del Laberinto
+     * @return la cuadrícula con los pasos del Laberinto
+     * @throws IllegalArgumentException si los bytes no tienen el formato
+     */
+    public static CuadriculaCompacta decodificar(byte[] bytes) throws IllegalArgumentException {
+        if (bytes.length < ENCABEZADO || bytes[0] != 'L' || bytes[1] != 'A' || bytes[2] != 'B'
+                || bytes[3] != VERSION) {
+            throw new IllegalArgumentException("Los bytes no son un Laberinto");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 4, 8);
+        int ancho = buffer.getInt();
+        int alto = buffer.getInt();
+        CuadriculaCompacta cuadricula = new CuadriculaCompacta(alto, ancho);
+        int tamanio = cuadricula.getTamanio();
+        if (bytes.length != ENCABEZADO + (tamanio + 1) / 2) {
+            throw new IllegalArgumentException("El tamaño no corresponde a las dimensiones");
+        }
+        for (int i = 0; i < tamanio; i++) {
+            cuadricula.abrirPaso(i, (bytes[ENCABEZADO + (i >> 1)] >> ((i & 1) << 2)) & 0xF);
+        }
+        return cuadricula;
+    }
+}
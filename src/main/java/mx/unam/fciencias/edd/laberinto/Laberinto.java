@@ -1,18 +1,28 @@
 package mx.unam.fciencias.edd.laberinto;
 
-import java.util.Random;
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
-import mx.unam.fciencias.edd.util.Pila;
+import mx.unam.fciencias.edd.laberinto.generador.Algoritmo;
+import mx.unam.fciencias.edd.laberinto.generador.Generador;
+import mx.unam.fciencias.edd.laberinto.solucionador.Busqueda;
+import mx.unam.fciencias.edd.laberinto.solucionador.IndiceArbol;
+import mx.unam.fciencias.edd.laberinto.solucionador.Solucionador;
 
 /**
- * Un laberinto es una colección de Casillas donde puedes llegar de un punto a otro
+ * Un laberinto es una colección de Casillas donde puedes llegar de un punto a otro.
+ * Las Casillas se guardan en una CuadriculaCompacta y sólo se crean objetos Casilla
+ * cuando se necesitan. La cuadrícula no cambia después de la generación, así que varios
+ * hilos pueden buscar caminos en el mismo Laberinto al mismo tiempo
  */
 public class Laberinto {
-    
+
     /**
-     * La cuadrícula o matriz donde se guardan las Casillas
+     * La cuadrícula donde se guardan las paredes de las Casillas
      */
-    private Casilla[][] casillas;
+    private CuadriculaCompacta cuadricula;
     /**
      * El número de casillas que tiene de alto el Laberinto
      */
@@ -21,139 +31,186 @@ public class Laberinto {
      * El número de casillas que tiene de ancho el Laberinto
      */
     private int ancho;
+    /**
+     * La semilla con la que se generó el Laberinto, null si se generó con una fuente
+     * de números aleatorios externa
+     */
+    private Long semilla;
 
     /**
-     * Genera un Laberinto de acuerdo a un ancho y alto de longitud
+     * El algoritmo con el que se generó el Laberinto
+     */
+    private Generador generador;
+    /**
+     * Los nanosegundos que tardó la generación
+     */
+    private long tiempoGeneracion;
+    /**
+     * El índice para responder caminos sin búsquedas, null si no se ha construido
+     */
+    private volatile IndiceArbol indice;
+    /**
+     * El digesto de la cuadrícula en hexadecimal, null si no se ha calculado
+     */
+    private volatile String digesto;
+
+    /**
+     * Genera un Laberinto de acuerdo a un ancho y alto de longitud, con una semilla al azar
      * @param alto el número de casillas que tendrá de alto el Laberinto
      * @param ancho el número de casillas que tendrá de ancho el laberinto
      */
     public Laberinto(int alto, int ancho){
+        this(alto, ancho, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Genera un Laberinto a partir de una semilla. Dos Laberintos con las mismas
+     * dimensiones y la misma semilla son iguales
+     * @param alto el número de casillas que tendrá de alto el Laberinto
+     * @param ancho el número de casillas que tendrá de ancho el laberinto
+     * @param semilla la semilla para generar el Laberinto
+     */
+    public Laberinto(int alto, int ancho, long semilla){
+        this(alto, ancho, Algoritmo.DFS.getGenerador(), semilla);
+    }
+
+    /**
+     * Genera un Laberinto con un algoritmo a partir de una semilla. Dos Laberintos con las
+     * mismas dimensiones, el mismo algoritmo y la misma semilla son iguales
+     * @param alto el número de casillas que tendrá de alto el Laberinto
+     * @param ancho el número de casillas que tendrá de ancho el laberinto
+     * @param generador el algoritmo de generación
+     * @param semilla la semilla para generar el Laberinto
+     */
+    public Laberinto(int alto, int ancho, Generador generador, long semilla){
+        this(alto, ancho, generador, new SplittableRandom(semilla));
+        this.semilla = semilla;
+    }
+
+    /**
+     * Genera un Laberinto con un algoritmo usando una fuente de números aleatorios. La
+     * fuente se usa durante toda la generación, y sólo desde el hilo que crea al Laberinto
+     * @param alto el número de casillas que tendrá de alto el Laberinto
+     * @param ancho el número de casillas que tendrá de ancho el laberinto
+     * @param generador el algoritmo de generación
+     * @param aleatorio la fuente de números aleatorios
+     */
+    public Laberinto(int alto, int ancho, Generador generador, RandomGenerator aleatorio){
         this.alto = alto;
         this.ancho = ancho;
-        this.casillas = generarCasillas();
-        generarLaberinto();
+        this.generador = generador;
+        this.cuadricula = new CuadriculaCompacta(alto, ancho);
+        long inicio = System.nanoTime();
+        generador.generar(cuadricula, aleatorio);
+        this.tiempoGeneracion = System.nanoTime() - inicio;
     }
 
     /**
-     * Marca a todas las Casillas del laberinto como no visitadas
+     * Regresa el SHA-256 de los pasos del Laberinto, que identifica a su imagen. Se calcula
+     * la primera vez que se pide
+     * @return el digesto de la cuadrícula en hexadecimal
      */
-    private void marcarTodosSinVisitar(){
-        for (int i = 0; i < casillas.length; i++) {
-            for (int j = 0; j < casillas[i].length; j++) {
-               casillas[i][j].desmarcarVisitada(); 
-            }
+    public String getDigesto(){
+        String digesto = this.digesto;
+        if(digesto == null){
+            digesto = HexFormat.of().formatHex(cuadricula.digesto());
+            this.digesto = digesto;
         }
+        return digesto;
     }
 
     /**
-     * Genera al laberinto
+     * Construye el índice que responde caminos y distancias sin hacer búsquedas. Si ya
+     * se había construido no hace nada
      */
-    private void generarLaberinto(){
-        Casilla casilla = obtenerCasillaAlAzar();
-        casilla.visitar();
-        Pila<Casilla> pila = new Pila<Casilla>();
-        pila.push(casilla);
-        while(!pila.esVacio()){
-            casilla = pila.peek();
-            if(casilla.noHayVecinosSinVisitar()){
-                pila.pop();
-            } else {
-                Casilla vecino = casilla.obtenerVecinoSinVisitar();
-                if(casilla.getX() < 0) continue;
-                casilla.visitar(vecino);
-                pila.push(vecino);
+    public void construirIndice(){
+        if(indice == null){
+            synchronized(this){
+                if(indice == null){
+                    indice = new IndiceArbol(cuadricula);
+                }
             }
         }
+    }
 
-        // Esto se hace para poder encontrar un camino de una Casilla a otra con el mismo algoritmo
-        marcarTodosSinVisitar();
+    /**
+     * Nos dice si ya se construyó el índice de caminos
+     * @return true si ya se construyó, false en otro caso
+     */
+    public boolean tieneIndice(){
+        return indice != null;
     }
 
     /**
-     * Obtiene un camino de Casillas de una posiciońa  otra
+     * Obtiene el camino de Casillas de una posición a otra, con el índice si ya se
+     * construyó y con BFS si no
      * @param x1 la x-coordenada de la posición 1
-     * @param y1 la x-coordenada de la posición 1
+     * @param y1 la y-coordenada de la posición 1
      * @param x2 la x-coordenada de la posición 2
-     * @param y2 la x-coordenada de la posición 2
+     * @param y2 la y-coordenada de la posición 2
      * @return una arreglo con las Casillas a recorrer
      */
     public Casilla[] obtenerCamino(int x1, int y1, int x2, int y2){
-        if(x1 < 0 || x1 >= ancho || y1 < 0 || y1 >= alto){
-            throw new IllegalArgumentException();
-        }
-        if(x2 < 0 || x2 >= ancho || y2 < 0 || y2 >= alto){
-            throw new IllegalArgumentException();
-        }
-        Casilla inicio = obtenerCasilla(x1, y1);
-        Casilla fin = obtenerCasilla(x2, y2);
-
-        return obtenerCamino(inicio, fin);
-        
-    }
-
-    /**
-     * Obtiene un camino de una Casilla a otra
-     * @param inicio la Casilla de inicio
-     * @param fin la Casilla a llegar
-     * @return una arreglo con las Casillas que se deben de recorrer para llegear del inicio al fin
-     */
-    protected Casilla[] obtenerCamino(Casilla inicio, Casilla fin){
-        Pila<Casilla> pila = new Pila<Casilla>();
-        Casilla casilla = inicio;
-        casilla.visitar();
-        pila.push(casilla);
-        while(!pila.esVacio()){
-            casilla = pila.peek();
-            if(casilla.equals(fin)) break;
-            if(casilla.noHayVecinosSinVisitarConPaso()){
-                pila.pop();
-            } else {
-                Casilla vecino = casilla.obtenerVecinoDisponible();
-                vecino.visitar();
-                pila.push(vecino);
-            }
-        }
-
-        marcarTodosSinVisitar();
-        Casilla[] camino = new Casilla[pila.getTamanio()];
+        IndiceArbol indice = this.indice;
+        return obtenerCamino(x1, y1, x2, y2, indice != null ? indice : Busqueda.BFS.getSolucionador());
+    }
 
-        // En reversa, debido al como agrega elementos la pila
-        for (int i = camino.length - 1; i >= 0; i--) {
-            camino[i] = pila.pop();
+    /**
+     * Obtiene el número de pasos del camino de una posición a otra, con el índice si ya se
+     * construyó y con BFS si no
+     * @param x1 la x-coordenada de la posición 1
+     * @param y1 la y-coordenada de la posición 1
+     * @param x2 la x-coordenada de la posición 2
+     * @param y2 la y-coordenada de la posición 2
+     * @return el número de pasos entre las posiciones
+     */
+    public int obtenerDistancia(int x1, int y1, int x2, int y2){
+        validarCoordenadas(x1, y1, x2, y2);
+        int inicio = cuadricula.indice(x1, y1);
+        int fin = cuadricula.indice(x2, y2);
+        IndiceArbol indice = this.indice;
+        if(indice != null){
+            return indice.distancia(inicio, fin);
         }
-        return camino;
+        return Busqueda.BFS.getSolucionador().resolver(cuadricula, inicio, fin).length - 1;
     }
 
-
-
     /**
-     * Obtiene una Casilla al azar
-     * @return una Casilla
+     * Obtiene el camino más corto de Casillas de una posición a otra
+     * @param x1 la x-coordenada de la posición 1
+     * @param y1 la y-coordenada de la posición 1
+     * @param x2 la x-coordenada de la posición 2
+     * @param y2 la y-coordenada de la posición 2
+     * @param solucionador el algoritmo de búsqueda
+     * @return una arreglo con las Casillas a recorrer
      */
-    private Casilla obtenerCasillaAlAzar(){
-        Random r = new Random();
-        int x = r.nextInt(ancho);
-        int y = r.nextInt(alto);
-        return casillas[y][x];
-    }
+    public Casilla[] obtenerCamino(int x1, int y1, int x2, int y2, Solucionador solucionador){
+        validarCoordenadas(x1, y1, x2, y2);
+        int[] camino = solucionador.resolver(cuadricula, cuadricula.indice(x1, y1), cuadricula.indice(x2, y2));
 
+        Casilla[] casillas = new Casilla[camino.length];
+        for (int i = 0; i < camino.length; i++) {
+            casillas[i] = obtenerCasilla(cuadricula.x(camino[i]), cuadricula.y(camino[i]));
+        }
+        return casillas;
+    }
 
     /**
-     * Genera las Casillas con todas las paredes habilitadas
-     * @return un arreglo con las Casillas
+     * Verifica que dos posiciones estén dentro del Laberinto
+     * @throws IllegalArgumentException si alguna posición está fuera del Laberinto
      */
-    private Casilla[][] generarCasillas(){
-        Casilla[][] casillas = new Casilla[alto][ancho];
-        for (int i = 0; i < casillas.length; i++) {
-            for (int j = 0; j < casillas[i].length; j++) {
-                casillas[i][j] = new Casilla(j,i, this);
-            }
+    private void validarCoordenadas(int x1, int y1, int x2, int y2){
+        if(x1 < 0 || x1 >= ancho || y1 < 0 || y1 >= alto){
+            throw new IllegalArgumentException();
+        }
+        if(x2 < 0 || x2 >= ancho || y2 < 0 || y2 >= alto){
+            throw new IllegalArgumentException();
         }
-        return casillas;
     }
 
     /**
-     * Regresa una Casilla del Laberinto de acuerdo a sus coordenadas
+     * Regresa una Casilla del Laberinto de acuerdo a sus coordenadas. La Casilla se crea
+     * a partir de la cuadrícula, por lo que modificarla no modifica al Laberinto
      * @param x la coordenada x
      * @param y la coordenada y
      * @throws IllegalArgumentException si la coordenada no está en el alcande del Laberinto
@@ -166,17 +223,72 @@ public class Laberinto {
         if(y < 0 || y >= alto){
             throw new IllegalArgumentException("El laberinto no tiene el alcance para la coordenada y: " + y);
         }
-        return casillas[y][x];
+        return new Casilla(x, y, this);
     }
 
     /**
-     * Obtiene el arreglo de Casillas
+     * Crea el arreglo de Casillas a partir de la cuadrícula
      * @return el arreglo de Casilla
      */
     protected Casilla[][] getCasillas(){
+        Casilla[][] casillas = new Casilla[alto][ancho];
+        for (int i = 0; i < casillas.length; i++) {
+            for (int j = 0; j < casillas[i].length; j++) {
+                casillas[i][j] = new Casilla(j, i, this);
+            }
+        }
         return casillas;
     }
 
+    /**
+     * Obtiene la cuadrícula donde se guardan las paredes de las Casillas
+     * @return la cuadrícula del Laberinto
+     */
+    public CuadriculaCompacta getCuadricula(){
+        return cuadricula;
+    }
+
+    /**
+     * Obtiene la semilla con la que se generó el Laberinto
+     * @return la semilla, o null si se generó con una fuente de números aleatorios externa
+     */
+    public Long getSemilla(){
+        return semilla;
+    }
+
+    /**
+     * Estima los bytes que ocupa el Laberinto en memoria, incluyendo su índice
+     * @return el número aproximado de bytes
+     */
+    public long getMemoria(){
+        IndiceArbol indice = this.indice;
+        return cuadricula.getMemoria() + (indice != null ? indice.getMemoria() : 0) + 64;
+    }
+
+    /**
+     * Obtiene el algoritmo con el que se generó el Laberinto
+     * @return el generador
+     */
+    public Generador getGenerador(){
+        return generador;
+    }
+
+    /**
+     * Obtiene el tiempo que tardó la generación
+     * @return los nanosegundos que tardó la generación
+     */
+    public long getTiempoGeneracion(){
+        return tiempoGeneracion;
+    }
+
+    /**
+     * Obtiene la velocidad con la que se generó el Laberinto
+     * @return el número de Casillas generadas por segundo
+     */
+    public double getCasillasPorSegundo(){
+        return cuadricula.getTamanio() * 1e9 / Math.max(tiempoGeneracion, 1);
+    }
+
     public int getAlto(){
         return alto;
     }
@@ -187,10 +299,7 @@ public class Laberinto {
 
     @Override
     public String toString() {
-        return "Laberinto [alto=" + alto + ", ancho=" + ancho + "]";
+        return "Laberinto [alto=" + alto + ", ancho=" + ancho + ", semilla=" + semilla + "]";
     }
 
-    
-
-
 }
\ No newline at end of file
@@ -1,20 +1,50 @@
 package mx.unam.fciencias.edd.laberinto;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.Deflater;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.JsonObject;
 
+import mx.unam.fciencias.edd.laberinto.generador.Algoritmo;
+import mx.unam.fciencias.edd.laberinto.generador.Generador;
+import mx.unam.fciencias.edd.laberinto.generador.GeneradorParalelo;
+import mx.unam.fciencias.edd.laberinto.imagen.FormatoImagen;
+import mx.unam.fciencias.edd.laberinto.imagen.LaberintoFlujo;
+import mx.unam.fciencias.edd.laberinto.imagen.MedidasImagen;
+import mx.unam.fciencias.edd.laberinto.imagen.RenderizadorTexto;
+import mx.unam.fciencias.edd.laberinto.solucionador.Busqueda;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * LaberintoController es un controlador que genera Laberintos y crea imagenes a partir de ellos
@@ -22,8 +52,83 @@ import org.springframework.web.bind.annotation.RequestParam;
 @Controller
 public class LaberintoController {
 
-    private static String directorio;
-    private static Laberinto laberinto;
+    /**
+     * Encabezado donde se devuelve la semilla del Laberinto generado
+     */
+    private static final String ENCABEZADO_SEMILLA = "Laberinto-Semilla";
+    /**
+     * Encabezado donde se devuelven las Casillas por segundo con las que se generó el Laberinto
+     */
+    private static final String ENCABEZADO_VELOCIDAD = "Laberinto-Casillas-Por-Segundo";
+    /**
+     * El número máximo de casillas de ancho de los Laberintos que se generan en flujo
+     */
+    private static final int MAXIMO_ANCHO_FLUJO = 2000;
+
+    /**
+     * Encabezado donde se devuelve el id con el que se registró el Laberinto generado
+     */
+    private static final String ENCABEZADO_ID = "Laberinto-Id";
+    /**
+     * Encabezado que indica si la respuesta de /laberinto se tomó de la caché
+     */
+    private static final String ENCABEZADO_CACHE = "Laberinto-Cache";
+    /**
+     * El tiempo entre los avisos de avance de una exportación
+     */
+    private static final Duration PERIODO_AVANCE = Duration.ofMillis(250);
+
+    private volatile String directorio;
+    private final RegistroLaberintos registro;
+    private final CacheRespuestas cache;
+    private final CacheImagenes imagenes;
+    private final ModeloCostos costos;
+    private final TrabajosExportacion trabajos;
+    private final ObjectMapper mapeador;
+    /**
+     * El nivel de compresión de deflate de las imágenes PNG
+     */
+    private final int nivelCompresion;
+    /**
+     * Donde se comprimen las imágenes en paralelo, null para comprimirlas en el hilo de la petición
+     */
+    private final Executor compresion;
+    /**
+     * El número máximo de pixeles de las imágenes que se dibujan
+     */
+    private final long maximoPixeles;
+
+    /**
+     * Crea el controlador
+     * @param registro donde se guardan los Laberintos generados
+     * @param cache donde se guardan las respuestas de los Laberintos generados con semilla
+     * @param imagenes donde se guardan las imágenes ya codificadas
+     * @param costos con el que se rechazan los Laberintos demasiado costosos
+     * @param trabajos donde se ejecutan las exportaciones de imágenes
+     * @param mapeador con el que se serializan las Casillas
+     * @param nivelCompresion el nivel de compresión de deflate de las imágenes PNG, de 0 a 9 o -1 para el
+     * nivel por omisión
+     * @param compresionParalela si las imágenes se comprimen en paralelo en el pool común
+     * @param maximoPixeles el número máximo de pixeles de las imágenes que se dibujan
+     */
+    public LaberintoController(RegistroLaberintos registro, CacheRespuestas cache, CacheImagenes imagenes,
+            ModeloCostos costos, TrabajosExportacion trabajos, ObjectMapper mapeador,
+            @Value("${laberinto.imagen.nivel-compresion:-1}") int nivelCompresion,
+            @Value("${laberinto.imagen.compresion-paralela:true}") boolean compresionParalela,
+            @Value("${laberinto.imagen.pixeles-maximos:100000000}") long maximoPixeles) {
+        if (nivelCompresion < Deflater.DEFAULT_COMPRESSION || nivelCompresion > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("El nivel de compresión debe estar entre -1 y 9");
+        }
+        this.registro = registro;
+        this.cache = cache;
+        this.imagenes = imagenes;
+        this.costos = costos;
+        this.trabajos = trabajos;
+        this.mapeador = mapeador;
+        this.nivelCompresion = nivelCompresion;
+        this.compresion = compresionParalela ? ForkJoinPool.commonPool() : null;
+        this.maximoPixeles = maximoPixeles;
+    }
 
     /**
      * Redirecciona a la página de inicio
@@ -58,32 +163,353 @@ public class LaberintoController {
 
     /**
      * Crea una imagen en base a un laberinto que ya ha sido creada anteriormente
-     * @return un ResponseEntity con estatus OK si se pudo crear la imagen, BAD_REQUEST en otro caso
+     * @param id el id del Laberinto
+     * @param formato el formato de la imagen: png (por omisión), svg o txt
+     * @param casilla la longitud en px de cada Casilla, opcional
+     * @param borde el grosor en px de las paredes, opcional
+     * @param pixeles el número máximo de pixeles de la imagen, opcional
+     * @return un ResponseEntity con estatus OK si se pudo crear la imagen, NOT_FOUND si no existe el Laberinto,
+     * BAD_REQUEST en otro caso
+     * @see #medidas
      */
-    @GetMapping(value = "/laberinto/imagen", produces = "application/json")
-    public ResponseEntity<String> crearImagen() {
-        if (laberinto == null || directorio == "") {
+    @GetMapping(value = "/laberinto/{id}/imagen", produces = "application/json")
+    public ResponseEntity<String> crearImagen(@PathVariable String id,
+            @RequestParam(defaultValue = "png") String formato, @RequestParam(required = false) Integer casilla,
+            @RequestParam(required = false) Integer borde, @RequestParam(required = false) Long pixeles) {
+        Laberinto laberinto = registro.obtener(id);
+        if (laberinto == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String directorio = this.directorio;
+        if (directorio == null) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
         try {
-            LaberintoImage.hacerImagen(laberinto, directorio);
-        } catch (IOException e) {
+            FormatoImagen formatoImagen = FormatoImagen.buscar(formato);
+            MedidasImagen medidas = medidas(laberinto, casilla, borde, pixeles);
+            String llave = llaveImagen(laberinto, formatoImagen, medidas);
+            LaberintoImage.guardarImagen(directorio, formatoImagen,
+                    salida -> escribirImagen(laberinto, formatoImagen, medidas, llave, salida));
+        } catch (IllegalArgumentException | IOException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    /**
+     * Devuelve la imagen de un laberinto en la respuesta, sin guardarla en el directorio. La imagen se
+     * escribe directamente en la respuesta conforme se recorre el Laberinto; su tamaño sólo se envía
+     * cuando se conoce de antemano, como en el texto o si ya estaba en la caché, y en otro caso la
+     * respuesta va por partes. La respuesta lleva un ETag fuerte, y si el cliente ya tiene la imagen
+     * lo indica con If-None-Match y no se vuelve a enviar
+     * @param id el id del Laberinto
+     * @param formato el formato de la imagen: png (por omisión), svg o txt
+     * @param casilla la longitud en px de cada Casilla, opcional
+     * @param borde el grosor en px de las paredes, opcional
+     * @param pixeles el número máximo de pixeles de la imagen, opcional
+     * @param siNoCoincide los ETag de las imágenes que ya tiene el cliente, opcional
+     * @return un ResponseEntity con la imagen, NOT_MODIFIED si el cliente ya la tiene, NOT_FOUND si no
+     * existe el Laberinto, BAD_REQUEST si el formato o las medidas no son válidos
+     * @see #medidas
+     */
+    @GetMapping(value = "/laberinto/{id}/imagen", params = "descargar=true")
+    public ResponseEntity<StreamingResponseBody> descargarImagen(@PathVariable String id,
+            @RequestParam(defaultValue = "png") String formato, @RequestParam(required = false) Integer casilla,
+            @RequestParam(required = false) Integer borde, @RequestParam(required = false) Long pixeles,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String siNoCoincide) {
+        Laberinto laberinto = registro.obtener(id);
+        if (laberinto == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        FormatoImagen formatoImagen;
+        MedidasImagen medidas;
+        try {
+            formatoImagen = FormatoImagen.buscar(formato);
+            medidas = medidas(laberinto, casilla, borde, pixeles);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        String llave = llaveImagen(laberinto, formatoImagen, medidas);
+        HttpHeaders encabezados = new HttpHeaders();
+        encabezados.setETag("\"" + llave + "\"");
+        if (coincide(siNoCoincide, llave)) {
+            return new ResponseEntity<>(encabezados, HttpStatus.NOT_MODIFIED);
+        }
+        encabezados.setContentType(MediaType.parseMediaType(formatoImagen.getTipo()));
+        encabezados.setContentDisposition(ContentDisposition.attachment()
+                .filename("laberinto-" + id + "." + formatoImagen.getNombre()).build());
+        byte[] guardada = imagenes.obtener(llave);
+        if (guardada != null) {
+            encabezados.setContentLength(guardada.length);
+            return new ResponseEntity<StreamingResponseBody>(salida -> salida.write(guardada), encabezados,
+                    HttpStatus.OK);
+        }
+        if (formatoImagen == FormatoImagen.TEXTO) {
+            encabezados.setContentLength(RenderizadorTexto.longitud(laberinto.getCuadricula()));
+        }
+        StreamingResponseBody cuerpo = salida -> escribirNuevaImagen(laberinto, formatoImagen, medidas, llave, salida);
+        return new ResponseEntity<StreamingResponseBody>(cuerpo, encabezados, HttpStatus.OK);
+    }
+
+    /**
+     * Elige las medidas con las que se dibuja la imagen de un Laberinto. Sin casilla ni borde se usan
+     * las medidas más grandes, hasta las de siempre, con las que la imagen cabe en el número máximo
+     * de pixeles, así que los Laberintos grandes se dibujan con Casillas de hasta 1 px. Si sólo se da
+     * la casilla, el borde es proporcional; si sólo se da el borde, la casilla es la de siempre
+     * @param casilla la longitud en px de cada Casilla, puede ser null
+     * @param borde el grosor en px de las paredes, puede ser null
+     * @param pixeles el número máximo de pixeles que pide el cliente, puede ser null. No puede pasar
+     * del máximo del servidor
+     * @return las medidas
+     * @throws IllegalArgumentException si las medidas no son válidas o la imagen no cabe
+     */
+    private MedidasImagen medidas(Laberinto laberinto, Integer casilla, Integer borde, Long pixeles)
+            throws IllegalArgumentException {
+        long maximo = pixeles == null ? maximoPixeles : Math.min(pixeles, maximoPixeles);
+        int ancho = laberinto.getAncho();
+        int alto = laberinto.getAlto();
+        if (casilla == null && borde == null) {
+            return MedidasImagen.ajustar(ancho, alto, maximo);
+        }
+        MedidasImagen medidas;
+        if (borde == null) {
+            medidas = MedidasImagen.proporcionales(casilla);
+        } else {
+            medidas = new MedidasImagen(casilla == null ? MedidasImagen.POR_OMISION.getLongitudCasilla() : casilla, borde);
+        }
+        if (medidas.getPixeles(ancho, alto) > maximo) {
+            throw new IllegalArgumentException("La imagen pasa de " + maximo + " pixeles");
+        }
+        return medidas;
+    }
+
+    /**
+     * Crea la llave de la caché de imágenes con los parámetros con los que dibuja este controlador
+     */
+    private String llaveImagen(Laberinto laberinto, FormatoImagen formato, MedidasImagen medidas) {
+        return CacheImagenes.llave(laberinto, formato, medidas, nivelCompresion, compresion != null);
+    }
+
+    /**
+     * Escribe la imagen de un Laberinto, tomándola de la caché si ya estaba
+     */
+    private void escribirImagen(Laberinto laberinto, FormatoImagen formato, MedidasImagen medidas, String llave,
+            OutputStream salida) throws IOException {
+        byte[] guardada = imagenes.obtener(llave);
+        if (guardada != null) {
+            salida.write(guardada);
+        } else {
+            escribirNuevaImagen(laberinto, formato, medidas, llave, salida);
+        }
+    }
+
+    /**
+     * Dibuja la imagen de un Laberinto y la guarda en la caché si no pasa del tamaño máximo
+     */
+    private void escribirNuevaImagen(Laberinto laberinto, FormatoImagen formato, MedidasImagen medidas, String llave,
+            OutputStream salida) throws IOException {
+        CopiaAcotada copia = new CopiaAcotada(salida, imagenes.getValorMaximo());
+        LaberintoImage.escribirImagen(laberinto, copia, formato, medidas, nivelCompresion, compresion, null);
+        byte[] copiada = copia.getCopia();
+        if (copiada != null) {
+            imagenes.guardar(llave, copiada);
+        }
+    }
+
+    /**
+     * Nos dice si un encabezado If-None-Match incluye un ETag
+     * @param siNoCoincide el valor del encabezado, puede ser null
+     * @param llave la llave de la imagen, sin comillas
+     * @return true si el cliente ya tiene la imagen
+     */
+    private static boolean coincide(String siNoCoincide, String llave) {
+        if (siNoCoincide == null) {
+            return false;
+        }
+        for (String etiqueta : siNoCoincide.split(",")) {
+            etiqueta = etiqueta.trim();
+            // If-None-Match usa la comparación débil
+            if (etiqueta.startsWith("W/")) {
+                etiqueta = etiqueta.substring(2);
+            }
+            if (etiqueta.equals("*") || etiqueta.equals("\"" + llave + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pone en la cola la exportación de la imagen de un laberinto y regresa de inmediato. El avance se
+     * consulta en /exportacion/{id}, o se sigue con eventos en /exportacion/{id}/progreso
+     * @param id el id del Laberinto
+     * @param formato el formato de la imagen: png (por omisión), svg o txt
+     * @param casilla la longitud en px de cada Casilla, opcional
+     * @param borde el grosor en px de las paredes, opcional
+     * @param pixeles el número máximo de pixeles de la imagen, opcional
+     * @return un ResponseEntity con estatus ACCEPTED y el estado del trabajo, NOT_FOUND si no existe el
+     * Laberinto, SERVICE_UNAVAILABLE si la cola de exportación está llena, BAD_REQUEST en otro caso
+     * @see #medidas
+     */
+    @PostMapping(value = "/laberinto/{id}/exportacion", produces = "application/json")
+    public ResponseEntity<String> exportar(@PathVariable String id,
+            @RequestParam(defaultValue = "png") String formato, @RequestParam(required = false) Integer casilla,
+            @RequestParam(required = false) Integer borde, @RequestParam(required = false) Long pixeles) {
+        Laberinto laberinto = registro.obtener(id);
+        if (laberinto == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String directorio = this.directorio;
+        if (directorio == null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        TrabajoExportacion trabajo;
+        try {
+            trabajo = new TrabajoExportacion(laberinto, directorio, FormatoImagen.buscar(formato),
+                    medidas(laberinto, casilla, borde, pixeles), nivelCompresion, compresion);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        HttpHeaders encabezados = new HttpHeaders();
+        try {
+            trabajos.enviar(trabajo);
+        } catch (RejectedExecutionException e) {
+            encabezados.set(HttpHeaders.RETRY_AFTER, "1");
+            return new ResponseEntity<>(estado(trabajo), encabezados, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        encabezados.setLocation(URI.create("/exportacion/" + trabajo.getId()));
+        return new ResponseEntity<>(estado(trabajo), encabezados, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Devuelve el estado de una exportación
+     * @param id el id del trabajo
+     * @return un JSON con el estado, las Casillas dibujadas y los bytes escritos, NOT_FOUND si no existe
+     * el trabajo
+     */
+    @GetMapping(value = "/exportacion/{id}", produces = "application/json")
+    public ResponseEntity<String> exportacion(@PathVariable String id) {
+        TrabajoExportacion trabajo = trabajos.obtener(id);
+        if (trabajo == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(estado(trabajo), HttpStatus.OK);
+    }
+
+    /**
+     * Envía el estado de una exportación como eventos mientras avanza, hasta que termina
+     * @param id el id del trabajo
+     * @return los eventos con el mismo JSON que /exportacion/{id}, NOT_FOUND si no existe el trabajo
+     */
+    @GetMapping(value = "/exportacion/{id}/progreso", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> progresoExportacion(@PathVariable String id) {
+        TrabajoExportacion trabajo = trabajos.obtener(id);
+        if (trabajo == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        SseEmitter eventos = new SseEmitter(0L);
+        trabajos.observar(trabajo, PERIODO_AVANCE, observado -> {
+            try {
+                eventos.send(SseEmitter.event().name("progreso").data(estado(observado), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // El cliente se desconectó
+                return false;
+            }
+            if (observado.estaTerminado()) {
+                eventos.complete();
+            }
+            return true;
+        });
+        return new ResponseEntity<>(eventos, HttpStatus.OK);
+    }
+
+    /**
+     * Devuelve la imagen de una exportación terminada
+     * @param id el id del trabajo
+     * @return la imagen, NOT_FOUND si no existe el trabajo o su archivo, CONFLICT si no ha terminado
+     */
+    @GetMapping("/exportacion/{id}/resultado")
+    public ResponseEntity<StreamingResponseBody> resultadoExportacion(@PathVariable String id) {
+        TrabajoExportacion trabajo = trabajos.obtener(id);
+        if (trabajo == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (trabajo.getEstado() != TrabajoExportacion.Estado.TERMINADO) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        if (!Files.isRegularFile(trabajo.getArchivo())) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        HttpHeaders encabezados = new HttpHeaders();
+        encabezados.setContentType(MediaType.parseMediaType(trabajo.getFormato().getTipo()));
+        encabezados.setContentLength(trabajo.getBytesEscritos());
+        StreamingResponseBody cuerpo = salida -> Files.copy(trabajo.getArchivo(), salida);
+        return new ResponseEntity<>(cuerpo, encabezados, HttpStatus.OK);
+    }
+
+    /**
+     * Escribe el estado de una exportación en JSON
+     */
+    private static String estado(TrabajoExportacion trabajo) {
+        JsonObject json = new JsonObject();
+        json.addProperty("id", trabajo.getId());
+        json.addProperty("estado", trabajo.getEstado().name());
+        json.addProperty("formato", trabajo.getFormato().getNombre());
+        json.addProperty("casillas", trabajo.getCasillasDibujadas());
+        json.addProperty("casillasTotales", trabajo.getCasillasTotales());
+        json.addProperty("bytes", trabajo.getBytesEscritos());
+        if (trabajo.getError() != null) {
+            json.addProperty("error", trabajo.getError());
+        }
+        return json.toString();
+    }
+
+    /**
+     * Genera un Laberinto con el algoritmo de Eller y devuelve su imagen PNG conforme se genera,
+     * sin guardar el Laberinto ni la imagen completa en memoria. Antes se estima su costo en flujo,
+     * que sólo depende del ancho en memoria, y se rechaza si tardaría demasiado
+     * @param ancho el número de casillas que tiene en el ancho
+     * @param alto el número de casillas que tiene en el alto
+     * @param semilla la semilla para generar el Laberinto, opcional
+     * @return un ResponseEntity con la imagen, BAD_REQUEST si las dimensiones no son válidas,
+     * PAYLOAD_TOO_LARGE o UNPROCESSABLE_ENTITY si pasa de los límites
+     * @see #rechazar
+     */
+    @GetMapping(value = "/laberinto/flujo", produces = "image/png")
+    public ResponseEntity<StreamingResponseBody> flujo(@RequestParam Integer ancho, @RequestParam Integer alto,
+            @RequestParam(required = false) Long semilla) {
+        if (ancho > MAXIMO_ANCHO_FLUJO || !LaberintoFlujo.esValido(alto, ancho, MedidasImagen.POR_OMISION)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        ModeloCostos.Estimacion estimacion = costos.estimarFlujo(ancho, alto, MedidasImagen.POR_OMISION);
+        ModeloCostos.Limite limite = costos.revisarFlujo(estimacion);
+        if (limite != null) {
+            return rechazar(estimacion, limite, costos.limitesFlujoJson());
+        }
+        long semillaFlujo = semilla == null ? ThreadLocalRandom.current().nextLong() : semilla;
+        HttpHeaders encabezados = new HttpHeaders();
+        encabezados.setContentType(MediaType.IMAGE_PNG);
+        encabezados.set(ENCABEZADO_SEMILLA, String.valueOf(semillaFlujo));
+        StreamingResponseBody cuerpo = salida -> LaberintoFlujo.escribirPng(alto, ancho, semillaFlujo, salida,
+                nivelCompresion, compresion);
+        return new ResponseEntity<StreamingResponseBody>(cuerpo, encabezados, HttpStatus.OK);
+    }
+
     /**
      * Crea un camino a partir de un par de coordenadas, las cuales son el inicio y el fin. Debido a la forma en que se creo el laberinto, sólo hay un
      * solo posible camino
-     * @param requestBody un JSON que contiene las coordenadas de la Casilla de inicio y la Casilla de fin
+     * @param id el id del Laberinto
+     * @param requestBody un JSON que contiene las coordenadas de la Casilla de inicio y la Casilla de fin, y opcionalmente
+     * el algoritmo de búsqueda (bfs o a-estrella). Sin algoritmo se usa el índice del Laberinto si lo tiene
      * @return un ResponseEntity que contiene un arreglo de Casilla que indica las casiilas que hay que recorrer
-     * para llegar al inicio y al fin
+     * para llegar al inicio y al fin, NOT_FOUND si no existe el Laberinto, BAD_REQUEST si las coordenadas o
+     * el algoritmo no son válidos
      */
-    @RequestMapping(value = "/laberinto/camino", method = RequestMethod.POST, consumes = "application/json", produces = "application/json")
-    public ResponseEntity<Casilla[]> camino(@RequestBody JsonNode requestBody) {
+    @RequestMapping(value = "/laberinto/{id}/camino", method = RequestMethod.POST, consumes = "application/json", produces = "application/json")
+    public ResponseEntity<Casilla[]> camino(@PathVariable String id, @RequestBody JsonNode requestBody) {
+        Laberinto laberinto = registro.obtener(id);
         if (laberinto == null) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
         // Para obtener los valores del json
@@ -91,26 +517,310 @@ public class LaberintoController {
         int y1 = requestBody.get("y1").asInt();
         int x2 = requestBody.get("x2").asInt();
         int y2 = requestBody.get("y2").asInt();
-
-        Casilla[] camino = laberinto.obtenerCamino(x1, y1, x2, y2);
+        Casilla[] camino;
+        try {
+            if (!requestBody.hasNonNull("algoritmo")) {
+                camino = laberinto.obtenerCamino(x1, y1, x2, y2);
+            } else {
+                Busqueda busqueda = Busqueda.buscar(requestBody.get("algoritmo").asText());
+                camino = laberinto.obtenerCamino(x1, y1, x2, y2, busqueda.getSolucionador());
+            }
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
         return new ResponseEntity<Casilla[]>(camino, HttpStatus.OK);
     }
 
     /**
-     * Crea el Laberinto y devuelve sus Casillas, para que pueda ser leído
+     * Calcula el número de pasos del camino entre un par de coordenadas. Si el Laberinto tiene índice
+     * la respuesta no requiere ninguna búsqueda
+     * @param id el id del Laberinto
+     * @param requestBody un JSON que contiene las coordenadas de la Casilla de inicio y la Casilla de fin
+     * @return un ResponseEntity con un JSON con atributo distancia, NOT_FOUND si no existe el Laberinto,
+     * BAD_REQUEST si las coordenadas no son válidas
+     */
+    @PostMapping(value = "/laberinto/{id}/distancia", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<String> distancia(@PathVariable String id, @RequestBody JsonNode requestBody) {
+        Laberinto laberinto = registro.obtener(id);
+        if (laberinto == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        int x1 = requestBody.get("x1").asInt();
+        int y1 = requestBody.get("y1").asInt();
+        int x2 = requestBody.get("x2").asInt();
+        int y2 = requestBody.get("y2").asInt();
+        JsonObject json = new JsonObject();
+        try {
+            json.addProperty("distancia", laberinto.obtenerDistancia(x1, y1, x2, y2));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<String>(json.toString(), HttpStatus.OK);
+    }
+
+    /**
+     * Crea el Laberinto, lo registra y devuelve sus Casillas, para que pueda ser leído. El id del Laberinto
+     * se devuelve en el encabezado Laberinto-Id, la semilla usada en el encabezado Laberinto-Semilla, para
+     * poder volver a generar el mismo Laberinto, y la velocidad de generación en el encabezado
+     * Laberinto-Casillas-Por-Segundo. Si se da la semilla, la respuesta se toma de la caché cuando ya se
+     * había pedido el mismo Laberinto, y el encabezado Laberinto-Cache indica si fue así. El JSON se
+     * escribe fila por fila conforme se envía, sin guardar el documento completo en memoria
      * @param ancho el número de casillas que tiene en el ancho
      * @param alto el número de casillas que tiene en el alto
-     * @return un arreglo de Casillas que representa al laberinto
+     * @param algoritmo el nombre del algoritmo de generación, por omisión dfs
+     * @param semilla la semilla para generar el Laberinto, opcional
+     * @param indexar si se construye el índice para responder caminos sin búsquedas
+     * @param paralelo si el Laberinto se genera por regiones en paralelo, uniéndolas después
+     * @param compacto si cada Casilla se escribe sólo como el número con sus bits de paso, en lugar de un objeto
+     * @return un arreglo de Casillas que representa al laberinto, PAYLOAD_TOO_LARGE o UNPROCESSABLE_ENTITY si es
+     * demasiado costoso
+     * @see #rechazar
      */
     @RequestMapping(value = "/laberinto", method = RequestMethod.GET , produces = "application/json")
-    public ResponseEntity<Casilla[][]> laberinto(@RequestParam Integer ancho, @RequestParam Integer alto){
-        if(ancho > 50 || ancho <= 0 || alto > 50 || alto <= 0){
+    public ResponseEntity<StreamingResponseBody> laberinto(@RequestParam Integer ancho, @RequestParam Integer alto,
+            @RequestParam(defaultValue = "dfs") String algoritmo, @RequestParam(required = false) Long semilla,
+            @RequestParam(defaultValue = "false") boolean indexar, @RequestParam(defaultValue = "false") boolean paralelo,
+            @RequestParam(defaultValue = "false") boolean compacto) {
+        String formato = MediaType.APPLICATION_JSON_VALUE + (compacto ? ";compacto" : "");
+        return responderLaberinto(ancho, alto, algoritmo, semilla, indexar, paralelo, MediaType.APPLICATION_JSON, formato,
+                (laberinto, salida) -> EscritorJson.escribir(laberinto, mapeador.getFactory(), salida, compacto));
+    }
+
+    /**
+     * Crea el Laberinto y lo registra igual que {@link #laberinto}, pero lo devuelve en el formato
+     * binario de {@link FormatoBinario}, que usa 4 bits por Casilla. Se elige pidiendo el tipo
+     * application/x-laberinto en el encabezado Accept
+     * @param ancho el número de casillas que tiene en el ancho
+     * @param alto el número de casillas que tiene en el alto
+     * @param algoritmo el nombre del algoritmo de generación, por omisión dfs
+     * @param semilla la semilla para generar el Laberinto, opcional
+     * @param indexar si se construye el índice para responder caminos sin búsquedas
+     * @param paralelo si el Laberinto se genera por regiones en paralelo, uniéndolas después
+     * @return los bytes del laberinto, PAYLOAD_TOO_LARGE o UNPROCESSABLE_ENTITY si es demasiado costoso
+     * @see #rechazar
+     */
+    @RequestMapping(value = "/laberinto", method = RequestMethod.GET , produces = FormatoBinario.TIPO)
+    public ResponseEntity<StreamingResponseBody> laberintoBinario(@RequestParam Integer ancho, @RequestParam Integer alto,
+            @RequestParam(defaultValue = "dfs") String algoritmo, @RequestParam(required = false) Long semilla,
+            @RequestParam(defaultValue = "false") boolean indexar, @RequestParam(defaultValue = "false") boolean paralelo) {
+        return responderLaberinto(ancho, alto, algoritmo, semilla, indexar, paralelo, MediaType.parseMediaType(FormatoBinario.TIPO),
+                FormatoBinario.TIPO, (laberinto, salida) -> salida.write(FormatoBinario.codificar(laberinto)));
+    }
+
+    /**
+     * Escribe un Laberinto en alguno de los formatos de /laberinto
+     */
+    private interface Escritura {
+        void escribir(Laberinto laberinto, OutputStream salida) throws IOException;
+    }
+
+    /**
+     * Crea o toma de la caché la respuesta de /laberinto en alguno de sus formatos. Las respuestas
+     * que no están en la caché se escriben conforme se envían, y sólo se copian para guardarlas si
+     * son de un Laberinto con semilla y no pasan del tamaño máximo de la caché
+     * @param tipo el tipo de contenido de la respuesta
+     * @param formato el nombre del formato en la llave de la caché
+     * @param escritura cómo se escribe el Laberinto
+     */
+    private ResponseEntity<StreamingResponseBody> responderLaberinto(Integer ancho, Integer alto, String algoritmo,
+            Long semilla, boolean indexar, boolean paralelo, MediaType tipo, String formato, Escritura escritura) {
+        if(ancho <= 0 || alto <= 0){
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Algoritmo generador;
+        try {
+            generador = Algoritmo.buscar(algoritmo);
+        } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        laberinto = new Laberinto(alto,ancho);
-        return new ResponseEntity<Casilla[][]>(laberinto.getCasillas(), HttpStatus.ACCEPTED);
+        ModeloCostos.Estimacion estimacion = costos.estimar(ancho, alto, generador, indexar, paralelo);
+        ModeloCostos.Limite limite = costos.revisar(estimacion);
+        if(limite != null){
+            return rechazar(estimacion, limite);
+        }
+        // Sin semilla el Laberinto no se va a volver a pedir, así que no se guarda
+        String llave = null;
+        CacheRespuestas.Respuesta respuesta = null;
+        if(semilla != null){
+            // El Laberinto generado en paralelo es distinto al de la misma semilla en un solo hilo
+            String nombre = generador.getNombre() + (paralelo ? "+paralelo" : "");
+            llave = CacheRespuestas.llave(ancho, alto, nombre, semilla, formato);
+            respuesta = cache.obtener(llave);
+        } else {
+            semilla = ThreadLocalRandom.current().nextLong();
+        }
+
+        Generador elegido = paralelo ? new GeneradorParalelo(generador.getGenerador()) : generador.getGenerador();
+        Laberinto laberinto = null;
+        String id;
+        double velocidad;
+        if(respuesta != null){
+            // El Laberinto de una respuesta guardada se reutiliza mientras siga en el registro. Si
+            // ya se sacó, se registra otra vez sin generarlo: sólo se genera si se usa su id
+            velocidad = respuesta.getCasillasPorSegundo();
+            if(registro.usar(respuesta.getId())){
+                id = respuesta.getId();
+                Laberinto registrado = indexar ? registro.obtener(id) : null;
+                if(registrado != null){
+                    registrado.construirIndice();
+                }
+            } else {
+                long semillaGuardada = semilla;
+                id = registro.registrarDiferido(() -> {
+                    Laberinto regenerado = new Laberinto(alto, ancho, elegido, semillaGuardada);
+                    if(indexar){
+                        regenerado.construirIndice();
+                    }
+                    return regenerado;
+                });
+                cache.guardar(llave, respuesta.getCuerpo(), id, velocidad);
+            }
+        } else {
+            laberinto = new Laberinto(alto, ancho, elegido, semilla);
+            if(indexar){
+                laberinto.construirIndice();
+            }
+            try {
+                id = registro.registrar(laberinto);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE);
+            }
+            velocidad = laberinto.getCasillasPorSegundo();
+        }
+
+        HttpHeaders encabezados = new HttpHeaders();
+        encabezados.setContentType(tipo);
+        encabezados.set(ENCABEZADO_ID, id);
+        encabezados.set(ENCABEZADO_SEMILLA, String.valueOf(semilla));
+        encabezados.set(ENCABEZADO_VELOCIDAD, String.valueOf(Math.round(velocidad)));
+        encabezados.set(ENCABEZADO_CACHE, respuesta != null ? "HIT" : "MISS");
+        StreamingResponseBody cuerpo;
+        if(respuesta != null){
+            byte[] guardado = respuesta.getCuerpo();
+            encabezados.setContentLength(guardado.length);
+            cuerpo = salida -> salida.write(guardado);
+        } else if(llave == null){
+            Laberinto generado = laberinto;
+            cuerpo = salida -> escritura.escribir(generado, salida);
+        } else {
+            Laberinto generado = laberinto;
+            String llaveCache = llave;
+            String registrado = id;
+            cuerpo = salida -> {
+                CopiaAcotada copia = new CopiaAcotada(salida, cache.getValorMaximo());
+                escritura.escribir(generado, copia);
+                byte[] copiado = copia.getCopia();
+                if(copiado != null){
+                    cache.guardar(llaveCache, copiado, registrado, velocidad);
+                }
+            };
+        }
+        return new ResponseEntity<StreamingResponseBody>(cuerpo, encabezados, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Rechaza un Laberinto que pasa de los límites del modelo de costos. Si pasa del número de
+     * Casillas o de la memoria se responde PAYLOAD_TOO_LARGE, y si sólo tardaría demasiado,
+     * UNPROCESSABLE_ENTITY. El cuerpo es un JSON con el límite, la estimación y los límites
+     * @param estimacion el costo estimado del Laberinto
+     * @param limite el límite del que pasa
+     * @return la respuesta de error
+     */
+    private ResponseEntity<StreamingResponseBody> rechazar(ModeloCostos.Estimacion estimacion,
+            ModeloCostos.Limite limite) {
+        return rechazar(estimacion, limite, costos.limitesJson());
+    }
+
+    /**
+     * Rechaza un Laberinto que pasa de unos límites del modelo de costos
+     * @param estimacion el costo estimado del Laberinto
+     * @param limite el límite del que pasa
+     * @param limites los límites que se revisaron, en JSON
+     * @return la respuesta de error
+     * @see #rechazar(ModeloCostos.Estimacion, ModeloCostos.Limite)
+     */
+    private ResponseEntity<StreamingResponseBody> rechazar(ModeloCostos.Estimacion estimacion,
+            ModeloCostos.Limite limite, JsonObject limites) {
+        JsonObject json = new JsonObject();
+        json.addProperty("error", "El laberinto pasa del límite de " + limite.getNombre());
+        json.addProperty("limite", limite.getNombre());
+        json.add("estimacion", estimacion.toJson());
+        json.add("limites", limites);
+        byte[] cuerpo = json.toString().getBytes(StandardCharsets.UTF_8);
+        HttpHeaders encabezados = new HttpHeaders();
+        encabezados.setContentType(MediaType.APPLICATION_JSON);
+        encabezados.setContentLength(cuerpo.length);
+        HttpStatus estatus = limite == ModeloCostos.Limite.TIEMPO ? HttpStatus.UNPROCESSABLE_ENTITY
+                : HttpStatus.PAYLOAD_TOO_LARGE;
+        return new ResponseEntity<StreamingResponseBody>(salida -> salida.write(cuerpo), encabezados, estatus);
     }
 
+    /**
+     * Una salida que además copia lo que se escribe, mientras no pase de un tamaño máximo
+     */
+    private static class CopiaAcotada extends FilterOutputStream {
+
+        private final long maximo;
+        private ByteArrayOutputStream copia = new ByteArrayOutputStream();
+
+        private CopiaAcotada(OutputStream salida, long maximo) {
+            super(salida);
+            this.maximo = maximo;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copiar(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int inicio, int longitud) throws IOException {
+            out.write(b, inicio, longitud);
+            copiar(b, inicio, longitud);
+        }
+
+        private void copiar(byte[] b, int inicio, int longitud) {
+            if (copia == null) {
+                return;
+            }
+            if (copia.size() + (long) longitud > maximo) {
+                copia = null;
+            } else {
+                copia.write(b, inicio, longitud);
+            }
+        }
+
+        /**
+         * Regresa lo que se escribió
+         * @return los bytes escritos, o null si pasaron del tamaño máximo
+         */
+        private byte[] getCopia() {
+            return copia != null ? copia.toByteArray() : null;
+        }
+    }
 
+    /**
+     * Devuelve las métricas de la caché de respuestas de /laberinto y de la caché de imágenes
+     * @return un JSON con el número de respuestas guardadas, su memoria, los aciertos, los fallos
+     * y las respuestas desalojadas, y las mismas métricas de las imágenes en el atributo imagenes
+     */
+    @GetMapping(value = "/laberinto/cache", produces = "application/json")
+    public ResponseEntity<String> metricasCache() {
+        JsonObject json = new JsonObject();
+        json.addProperty("respuestas", cache.getTamanio());
+        json.addProperty("memoria", cache.getMemoria());
+        json.addProperty("aciertos", cache.getAciertos());
+        json.addProperty("fallos", cache.getFallos());
+        json.addProperty("desalojadas", cache.getDesalojados());
+        JsonObject imagenes = new JsonObject();
+        imagenes.addProperty("imagenes", this.imagenes.getTamanio());
+        imagenes.addProperty("memoria", this.imagenes.getMemoria());
+        imagenes.addProperty("aciertos", this.imagenes.getAciertos());
+        imagenes.addProperty("fallos", this.imagenes.getFallos());
+        imagenes.addProperty("desalojadas", this.imagenes.getDesalojados());
+        json.add("imagenes", imagenes);
+        return new ResponseEntity<String>(json.toString(), HttpStatus.OK);
+    }
 
-}
\ No newline at end of file
+}
@@ -1,30 +1,28 @@
 package mx.unam.fciencias.edd.laberinto;
 
-import java.awt.image.BufferedImage;
-import java.io.File;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.security.SecureRandom;
+import java.util.concurrent.Executor;
+import java.util.function.IntConsumer;
 
-import javax.imageio.ImageIO;
-
-import java.awt.Color;
-import java.awt.Graphics2D;
+import mx.unam.fciencias.edd.laberinto.imagen.FormatoImagen;
+import mx.unam.fciencias.edd.laberinto.imagen.LaberintoFlujo;
+import mx.unam.fciencias.edd.laberinto.imagen.MedidasImagen;
+import mx.unam.fciencias.edd.laberinto.imagen.RenderizadorSvg;
+import mx.unam.fciencias.edd.laberinto.imagen.RenderizadorTexto;
 
 /**
  * LaberintoImage produce imagenes del Laberinto
  */
 public class LaberintoImage {
 
-    /**
-     * La longitud en px de cada casilla
-     */
-    private static int longitudCasilla = 50;
-
-    /**
-     * La longitud del borde de la Casilla, que hace referenncia a la pared
-     */
-    private static int borde = 5;
-    
     /**
      * Cadena para generar un String aleatorio
      */
@@ -44,62 +42,64 @@ public class LaberintoImage {
     }
 
     /**
-     * Genera una imagen que representa al Laberinto
-     * @param laberinto Laberinto a representar
+     * Escribe una imagen en una salida
+     */
+    public interface Escritura {
+        void escribir(OutputStream salida) throws IOException;
+    }
+
+    /**
+     * Guarda una imagen en un archivo nuevo del directorio
      * @param directorio un String con el directorio donde se va a guardar la imagen
+     * @param formato el formato de la imagen, que da la extensión del archivo
+     * @param escritura cómo se escribe la imagen
+     * @return la ruta de la imagen creada
      * @throws IOException si no se puede crear la imagen
      */
-    public static void hacerImagen(Laberinto laberinto, String directorio) throws IOException {
-        int alto = (laberinto.getAlto() * (longitudCasilla + borde)) + borde;
-        int ancho = (laberinto.getAncho() * (longitudCasilla + borde)) + borde;
-        BufferedImage bufferedImage = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
-
-        Graphics2D g2d = bufferedImage.createGraphics();
-
-        // Para llenar todo de negro
-        g2d.setColor(Color.BLACK);
-        g2d.fillRect(0, 0, ancho, alto);
-
-        g2d.setColor(Color.RED);
-        g2d.fillRect(0, 0, 30, 30);
-
-        for (int y = 0; y < laberinto.getAlto(); y++) {
-            for (int x = 0; x < laberinto.getAncho(); x++) {
-                Casilla casilla = laberinto.obtenerCasilla(x, y);
-
-                int xPosicion = x*(longitudCasilla + borde) + borde;
-                int yPosicion = y*(longitudCasilla + borde) + borde;
-                int anchoCasilla = longitudCasilla;
-                int altoCasilla = longitudCasilla;
-
-                /*
-                    // Se hace para simular que hay un borde, lo que hace es extender 
-                    el tamaño de la casilla al restar la posición y compensar el tamaño añadiendole lo restado
-                */
-                if(casilla.isSur()){
-                    yPosicion -= borde;
-                    altoCasilla += borde;
-                }
-                if(casilla.isNorte()){
-                    altoCasilla += borde;
-                }
-                if(casilla.isOeste()){
-                    xPosicion -= borde;
-                    anchoCasilla += borde;
-                }
-                if(casilla.isEste()){
-                    anchoCasilla += borde;
-                }
-
-                g2d.setColor(Color.WHITE);
-                g2d.fillRect(xPosicion, yPosicion, anchoCasilla, altoCasilla);
-            }
+    public static Path guardarImagen(String directorio, FormatoImagen formato, Escritura escritura)
+            throws IOException {
+        Path archivo = nombrarImagen(directorio, formato);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                OutputStream salida = new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16)) {
+            escritura.escribir(salida);
         }
+        return archivo;
+    }
 
-        g2d.dispose();
+    /**
+     * Crea la ruta de una imagen nueva, con un nombre al azar y la extensión del formato
+     * @param directorio el directorio donde se va a guardar la imagen
+     * @param formato el formato de la imagen
+     * @return la ruta de la imagen
+     */
+    public static Path nombrarImagen(String directorio, FormatoImagen formato) {
+        return Paths.get(directorio, " " + randomString(10) + "." + formato.getNombre());
+    }
 
-        File file = new File(directorio + "/ "+ randomString(10)+".png");
-        ImageIO.write(bufferedImage, "png", file);
+    /**
+     * Escribe la imagen de un Laberinto en un formato con unas medidas, avisando cada que se termina una
+     * fila. El texto no usa las medidas
+     * @param laberinto Laberinto a representar
+     * @param salida donde se escribe la imagen, no se cierra al terminar
+     * @param formato el formato de la imagen
+     * @param medidas las medidas en px de las casillas y las paredes
+     * @param nivel el nivel de compresión de deflate de los PNG, de 0 a 9 o -1 para el nivel por omisión
+     * @param paralelo donde se comprimen los PNG en paralelo, null para comprimir en este hilo
+     * @param progreso recibe el número de filas terminadas, puede ser null
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public static void escribirImagen(Laberinto laberinto, OutputStream salida, FormatoImagen formato,
+            MedidasImagen medidas, int nivel, Executor paralelo, IntConsumer progreso) throws IOException {
+        switch (formato) {
+            case SVG:
+                RenderizadorSvg.escribir(laberinto.getCuadricula(), salida, medidas, progreso);
+                break;
+            case TEXTO:
+                RenderizadorTexto.escribir(laberinto.getCuadricula(), salida, progreso);
+                break;
+            default:
+                LaberintoFlujo.escribirPng(laberinto.getCuadricula(), salida, medidas, nivel, paralelo, progreso);
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,291 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.google.gson.JsonObject;
+
+import mx.unam.fciencias.edd.laberinto.generador.Algoritmo;
+import mx.unam.fciencias.edd.laberinto.generador.GeneradorParalelo;
+import mx.unam.fciencias.edd.laberinto.imagen.MedidasImagen;
+
+/**
+ * ModeloCostos estima la memoria y el tiempo que cuesta generar un Laberinto antes de generarlo,
+ * a partir de su número de Casillas, los costos por Casilla de su algoritmo y los de la
+ * CuadriculaCompacta y el índice. Las peticiones que pasan de los límites configurados se
+ * rechazan sin generar nada. Los Laberintos que se generan en flujo no guardan su cuadrícula, así
+ * que se estiman y se limitan aparte
+ */
+@Component
+public class ModeloCostos {
+
+    /**
+     * Los bytes por Casilla del índice de caminos mientras se construye: sus tres arreglos y la cola
+     */
+    private static final int BYTES_INDICE = 16;
+    /**
+     * Los nanosegundos por Casilla que tarda la construcción del índice
+     */
+    private static final int NANOS_INDICE = 30;
+    /**
+     * Los nanosegundos por Casilla que tarda copiar las regiones de la generación en paralelo
+     */
+    private static final int NANOS_COPIA = 5;
+    /**
+     * Los bytes por columna de la generación en flujo: las filas del algoritmo de Eller y la fila
+     * anterior que guarda el dibujo
+     */
+    private static final int BYTES_COLUMNA_FLUJO = 25;
+    /**
+     * Los nanosegundos por pixel que tarda dibujar y comprimir la imagen en flujo
+     */
+    private static final int NANOS_PIXEL_FLUJO = 2;
+
+    /**
+     * Los límites que puede pasar una petición, en el orden en que se revisan
+     */
+    public enum Limite {
+        /**
+         * El número de Casillas, que también acota el tamaño de las respuestas
+         */
+        CASILLAS("casillas"),
+        /**
+         * La memoria que el Laberinto ocuparía en el registro
+         */
+        REGISTRO("registro"),
+        /**
+         * La memoria máxima durante la generación
+         */
+        MEMORIA("memoria"),
+        /**
+         * El tiempo de la generación
+         */
+        TIEMPO("tiempo");
+
+        private final String nombre;
+
+        private Limite(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+    }
+
+    /**
+     * El costo estimado de generar un Laberinto
+     */
+    public static class Estimacion {
+        private final long casillas;
+        private final long memoria;
+        private final long memoriaRegistro;
+        private final long nanos;
+
+        private Estimacion(long casillas, long memoria, long memoriaRegistro, long nanos) {
+            this.casillas = casillas;
+            this.memoria = memoria;
+            this.memoriaRegistro = memoriaRegistro;
+            this.nanos = nanos;
+        }
+
+        public long getCasillas() {
+            return casillas;
+        }
+
+        /**
+         * Regresa la memoria máxima durante la generación, en el peor caso
+         * @return el número de bytes
+         */
+        public long getMemoria() {
+            return memoria;
+        }
+
+        /**
+         * Regresa la memoria que ocupa el Laberinto en el registro después de generarlo
+         * @return el número de bytes
+         */
+        public long getMemoriaRegistro() {
+            return memoriaRegistro;
+        }
+
+        /**
+         * Regresa el tiempo aproximado de la generación
+         * @return el número de nanosegundos
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Escribe la estimación en JSON
+         * @return un JSON con las casillas, la memoria y la memoria del registro en bytes y el tiempo en ms
+         */
+        public JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("casillas", casillas);
+            json.addProperty("memoria", memoria);
+            json.addProperty("memoriaRegistro", memoriaRegistro);
+            json.addProperty("milisegundos", nanos / 1_000_000);
+            return json;
+        }
+    }
+
+    private final long casillasMaximas;
+    private final long memoriaMaxima;
+    private final long nanosMaximos;
+    private final long nanosMaximosFlujo;
+    private final double factorTiempo;
+    private final RegistroLaberintos registro;
+
+    /**
+     * Crea el modelo
+     * @param casillasMaximas el número máximo de Casillas de un Laberinto
+     * @param memoriaMaxima la memoria máxima que puede usar la generación de un Laberinto
+     * @param tiempoMaximo el tiempo máximo que puede tardar la generación de un Laberinto
+     * @param tiempoMaximoFlujo el tiempo máximo que puede tardar la imagen de un Laberinto en flujo
+     * @param factorTiempo cuánto más lento es el servidor que la máquina donde se midieron los
+     * algoritmos
+     * @param registro el registro donde se guardan los Laberintos generados
+     */
+    public ModeloCostos(@Value("${laberinto.limites.casillas-maximas:16000000}") long casillasMaximas,
+            @Value("${laberinto.limites.memoria-maxima:256MB}") DataSize memoriaMaxima,
+            @Value("${laberinto.limites.tiempo-maximo:2s}") Duration tiempoMaximo,
+            @Value("${laberinto.limites.flujo.tiempo-maximo:1h}") Duration tiempoMaximoFlujo,
+            @Value("${laberinto.limites.factor-tiempo:1.0}") double factorTiempo,
+            RegistroLaberintos registro) {
+        // Las Casillas se indexan con int
+        this.casillasMaximas = Math.min(casillasMaximas, Integer.MAX_VALUE - 8);
+        this.memoriaMaxima = memoriaMaxima.toBytes();
+        this.nanosMaximos = tiempoMaximo.toNanos();
+        this.nanosMaximosFlujo = tiempoMaximoFlujo.toNanos();
+        this.factorTiempo = factorTiempo;
+        this.registro = registro;
+    }
+
+    /**
+     * Estima el costo de generar un Laberinto
+     * @param ancho el número de Casillas de ancho
+     * @param alto el número de Casillas de alto
+     * @param algoritmo el algoritmo de generación
+     * @param indexar si se construye el índice de caminos
+     * @return la estimación
+     */
+    public Estimacion estimar(int ancho, int alto, Algoritmo algoritmo, boolean indexar) {
+        return estimar(ancho, alto, algoritmo, indexar, false);
+    }
+
+    /**
+     * Estima el costo de generar un Laberinto, en un solo hilo o por regiones en paralelo en el
+     * pool común. En paralelo el algoritmo sólo ocupa memoria para las regiones que se generan al
+     * mismo tiempo, y su tiempo se divide entre los hilos
+     * @param ancho el número de Casillas de ancho
+     * @param alto el número de Casillas de alto
+     * @param algoritmo el algoritmo de generación
+     * @param indexar si se construye el índice de caminos
+     * @param paralelo si se genera con {@link GeneradorParalelo}
+     * @return la estimación
+     */
+    public Estimacion estimar(int ancho, int alto, Algoritmo algoritmo, boolean indexar, boolean paralelo) {
+        long casillas = (long) ancho * alto;
+        // La misma cuenta que CuadriculaCompacta, IndiceArbol y Laberinto hacen de su memoria
+        long memoriaRegistro = casillas + 32 + 64 + (indexar ? 12 * casillas + 64 : 0);
+        long memoriaAlgoritmo = (long) algoritmo.getBytesPorCasilla() * casillas;
+        double nanosAlgoritmo = (double) algoritmo.getNanosPorCasilla() * casillas;
+        if (paralelo) {
+            long lado = GeneradorParalelo.LADO_REGION;
+            long regiones = ((ancho + lado - 1) / lado) * ((alto + lado - 1) / lado);
+            long hilos = Math.max(1, Math.min(regiones, ForkJoinPool.commonPool().getParallelism()));
+            // Cada región tiene su propia cuadrícula mientras se genera
+            memoriaAlgoritmo = Math.min(memoriaAlgoritmo + casillas,
+                    hilos * lado * lado * (algoritmo.getBytesPorCasilla() + 1));
+            nanosAlgoritmo = nanosAlgoritmo / hilos + (double) NANOS_COPIA * casillas;
+        }
+        long memoria = casillas + 32 + memoriaAlgoritmo + (indexar ? BYTES_INDICE * casillas : 0);
+        long nanos = (long) (factorTiempo * (nanosAlgoritmo + (indexar ? (double) NANOS_INDICE * casillas : 0)));
+        return new Estimacion(casillas, memoria, memoriaRegistro, nanos);
+    }
+
+    /**
+     * Estima el costo de generar un Laberinto en flujo con el algoritmo de Eller y escribir su
+     * imagen. Sólo se guardan unas filas de Casillas y un renglón de pixeles, así que la memoria
+     * depende del ancho y no del alto, y no se ocupa nada del registro. El tiempo lo domina el
+     * dibujo y la compresión de la imagen
+     * @param ancho el número de Casillas de ancho
+     * @param alto el número de Casillas de alto
+     * @param medidas las medidas en px de las casillas y las paredes
+     * @return la estimación
+     */
+    public Estimacion estimarFlujo(int ancho, int alto, MedidasImagen medidas) {
+        long casillas = (long) ancho * alto;
+        long memoria = (long) BYTES_COLUMNA_FLUJO * ancho + 2 * medidas.getAnchoImagen(ancho);
+        double nanos = (double) Algoritmo.ELLER.getNanosPorCasilla() * casillas
+                + (double) NANOS_PIXEL_FLUJO * medidas.getPixeles(ancho, alto);
+        return new Estimacion(casillas, memoria, 0, (long) (factorTiempo * nanos));
+    }
+
+    /**
+     * Revisa si una estimación en flujo pasa de la memoria o del tiempo máximo en flujo. El número
+     * de Casillas y el registro no la limitan
+     * @param estimacion la estimación de {@link #estimarFlujo}
+     * @return el primer límite del que pasa, o null si no pasa de ninguno
+     */
+    public Limite revisarFlujo(Estimacion estimacion) {
+        if (estimacion.memoria > memoriaMaxima) {
+            return Limite.MEMORIA;
+        }
+        if (estimacion.nanos > nanosMaximosFlujo) {
+            return Limite.TIEMPO;
+        }
+        return null;
+    }
+
+    /**
+     * Revisa si una estimación pasa de algún límite
+     * @param estimacion la estimación
+     * @return el primer límite del que pasa, o null si no pasa de ninguno
+     */
+    public Limite revisar(Estimacion estimacion) {
+        if (estimacion.casillas > casillasMaximas) {
+            return Limite.CASILLAS;
+        }
+        if (estimacion.memoriaRegistro > registro.getMemoriaMaxima()) {
+            return Limite.REGISTRO;
+        }
+        if (estimacion.memoria > memoriaMaxima) {
+            return Limite.MEMORIA;
+        }
+        if (estimacion.nanos > nanosMaximos) {
+            return Limite.TIEMPO;
+        }
+        return null;
+    }
+
+    /**
+     * Escribe los límites en JSON
+     * @return un JSON con las casillas, la memoria y la memoria del registro en bytes y el tiempo en ms
+     */
+    public JsonObject limitesJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("casillas", casillasMaximas);
+        json.addProperty("memoria", memoriaMaxima);
+        json.addProperty("memoriaRegistro", registro.getMemoriaMaxima());
+        json.addProperty("milisegundos", nanosMaximos / 1_000_000);
+        return json;
+    }
+
+    /**
+     * Escribe los límites de la generación en flujo en JSON
+     * @return un JSON con la memoria en bytes y el tiempo en ms
+     */
+    public JsonObject limitesFlujoJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("memoria", memoriaMaxima);
+        json.addProperty("milisegundos", nanosMaximosFlujo / 1_000_000);
+        return json;
+    }
+}
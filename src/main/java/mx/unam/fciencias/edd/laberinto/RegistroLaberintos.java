@@ -0,0 +1,217 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * RegistroLaberintos guarda los Laberintos generados, identificados por un id, para que
+ * cada cliente trabaje con el suyo. La memoria que ocupan los Laberintos está acotada: al
+ * pasarse del límite se sacan los Laberintos que tienen más tiempo sin usarse, y también
+ * se sacan los que llevan demasiado tiempo sin usarse. Un Laberinto que se puede volver a
+ * generar, porque ya se conoce su semilla, se puede registrar sin generarlo: se genera hasta
+ * que se obtiene por primera vez
+ */
+@Component
+public class RegistroLaberintos {
+
+    /**
+     * Un Laberinto registrado, con la memoria que se le contó y su último uso. Si el Laberinto
+     * todavía no se genera, la entrada guarda cómo generarlo y no cuenta memoria
+     */
+    private static class Entrada {
+        private volatile Laberinto laberinto;
+        private Supplier<Laberinto> generador;
+        private long memoria;
+        private long ultimoUso;
+
+        private Entrada(Laberinto laberinto, long ahora) {
+            this.laberinto = laberinto;
+            this.memoria = laberinto.getMemoria();
+            this.ultimoUso = ahora;
+        }
+
+        private Entrada(Supplier<Laberinto> generador, long ahora) {
+            this.generador = generador;
+            this.ultimoUso = ahora;
+        }
+
+        /**
+         * Regresa el Laberinto, generándolo si hace falta. Si varios hilos lo piden al mismo
+         * tiempo sólo uno lo genera
+         */
+        private Laberinto getLaberinto() {
+            Laberinto generado = laberinto;
+            if (generado == null) {
+                synchronized (this) {
+                    generado = laberinto;
+                    if (generado == null) {
+                        generado = generador.get();
+                        laberinto = generado;
+                        generador = null;
+                    }
+                }
+            }
+            return generado;
+        }
+    }
+
+    /**
+     * Los Laberintos en orden de uso, del que tiene más tiempo sin usarse al más reciente
+     */
+    private final LinkedHashMap<String, Entrada> laberintos = new LinkedHashMap<>(16, 0.75f, true);
+    private final long memoriaMaxima;
+    private final long tiempoSinUso;
+    private long memoria;
+    private long desalojados;
+
+    /**
+     * Crea el registro
+     * @param memoriaMaxima la memoria que pueden ocupar en total los Laberintos registrados
+     * @param tiempoSinUso el tiempo que un Laberinto puede pasar sin usarse antes de sacarlo
+     */
+    public RegistroLaberintos(@Value("${laberinto.registro.memoria-maxima:256MB}") DataSize memoriaMaxima,
+            @Value("${laberinto.registro.tiempo-sin-uso:30m}") Duration tiempoSinUso) {
+        this.memoriaMaxima = memoriaMaxima.toBytes();
+        this.tiempoSinUso = tiempoSinUso.toNanos();
+    }
+
+    /**
+     * Registra un Laberinto, sacando a los que tienen más tiempo sin usarse si hace falta memoria
+     * @param laberinto el Laberinto a registrar
+     * @return el id con el que se registró
+     * @throws IllegalArgumentException si el Laberinto no cabe en la memoria del registro
+     */
+    public synchronized String registrar(Laberinto laberinto) throws IllegalArgumentException {
+        long ahora = System.nanoTime();
+        Entrada entrada = new Entrada(laberinto, ahora);
+        if (entrada.memoria > memoriaMaxima) {
+            throw new IllegalArgumentException("El laberinto no cabe en el registro");
+        }
+        String id = UUID.randomUUID().toString();
+        laberintos.put(id, entrada);
+        memoria += entrada.memoria;
+        desalojar(ahora);
+        return id;
+    }
+
+    /**
+     * Registra un Laberinto sin generarlo. Se genera la primera vez que se obtiene, en el hilo
+     * que lo obtiene, y hasta entonces no ocupa memoria del registro
+     * @param generador cómo generar el Laberinto, siempre el mismo
+     * @return el id con el que se registró
+     */
+    public synchronized String registrarDiferido(Supplier<Laberinto> generador) {
+        long ahora = System.nanoTime();
+        String id = UUID.randomUUID().toString();
+        laberintos.put(id, new Entrada(generador, ahora));
+        desalojar(ahora);
+        return id;
+    }
+
+    /**
+     * Nos dice si un Laberinto sigue en el registro y lo marca como recién usado, sin generarlo
+     * si se registró sin generar
+     * @param id el id del Laberinto
+     * @return true si el Laberinto sigue registrado, false en otro caso
+     */
+    public synchronized boolean usar(String id) {
+        long ahora = System.nanoTime();
+        desalojar(ahora);
+        Entrada entrada = laberintos.get(id);
+        if (entrada == null) {
+            return false;
+        }
+        entrada.ultimoUso = ahora;
+        return true;
+    }
+
+    /**
+     * Regresa la memoria que pueden ocupar en total los Laberintos registrados
+     * @return el número de bytes
+     */
+    public long getMemoriaMaxima() {
+        return memoriaMaxima;
+    }
+
+    /**
+     * Obtiene un Laberinto registrado y lo marca como recién usado. Si se registró sin
+     * generar, se genera en este hilo sin detener al resto del registro
+     * @param id el id del Laberinto
+     * @return el Laberinto, o null si no existe o ya se sacó del registro
+     */
+    public Laberinto obtener(String id) {
+        Entrada entrada;
+        synchronized (this) {
+            long ahora = System.nanoTime();
+            desalojar(ahora);
+            entrada = laberintos.get(id);
+            if (entrada == null) {
+                return null;
+            }
+            entrada.ultimoUso = ahora;
+        }
+        Laberinto laberinto = entrada.getLaberinto();
+        synchronized (this) {
+            // El Laberinto pudo haberse generado o haber crecido, por ejemplo al construir su
+            // índice. Si ya se sacó del registro su memoria ya no se cuenta
+            long actual = laberinto.getMemoria();
+            if (actual != entrada.memoria && laberintos.containsKey(id)) {
+                memoria += actual - entrada.memoria;
+                entrada.memoria = actual;
+                desalojar(System.nanoTime());
+            }
+        }
+        return laberinto;
+    }
+
+    /**
+     * Saca del registro los Laberintos que llevan demasiado tiempo sin usarse, y luego los
+     * menos usados hasta que la memoria no pase del límite. El más reciente nunca se saca
+     * por memoria
+     */
+    private void desalojar(long ahora) {
+        Iterator<Entrada> iterador = laberintos.values().iterator();
+        while (iterador.hasNext()) {
+            Entrada entrada = iterador.next();
+            boolean caduco = ahora - entrada.ultimoUso > tiempoSinUso;
+            boolean sobra = memoria > memoriaMaxima && laberintos.size() > 1;
+            if (!caduco && !sobra) {
+                break;
+            }
+            iterador.remove();
+            memoria -= entrada.memoria;
+            desalojados++;
+        }
+    }
+
+    /**
+     * Regresa el número de Laberintos registrados
+     * @return el número de Laberintos
+     */
+    public synchronized int getTamanio() {
+        return laberintos.size();
+    }
+
+    /**
+     * Regresa la memoria que ocupan los Laberintos registrados
+     * @return el número aproximado de bytes
+     */
+    public synchronized long getMemoria() {
+        return memoria;
+    }
+
+    /**
+     * Regresa cuántos Laberintos se han sacado del registro por falta de memoria o de uso
+     * @return el número de Laberintos desalojados
+     */
+    public synchronized long getDesalojados() {
+        return desalojados;
+    }
+}
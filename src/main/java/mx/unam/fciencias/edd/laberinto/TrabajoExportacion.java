@@ -0,0 +1,178 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import mx.unam.fciencias.edd.laberinto.imagen.FormatoImagen;
+import mx.unam.fciencias.edd.laberinto.imagen.MedidasImagen;
+
+/**
+ * Un TrabajoExportacion escribe la imagen de un Laberinto en un archivo fuera del hilo de la
+ * petición. Mientras se ejecuta se puede consultar su avance: las Casillas dibujadas y los bytes
+ * escritos
+ */
+public class TrabajoExportacion implements Runnable {
+
+    /**
+     * Los estados por los que pasa un trabajo
+     */
+    public enum Estado {
+        EN_COLA, EN_PROCESO, TERMINADO, FALLIDO
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final FormatoImagen formato;
+    private final MedidasImagen medidas;
+    private final String directorio;
+    private final int nivel;
+    private final Executor paralelo;
+    private final long casillasTotales;
+    private final int ancho;
+    /**
+     * El Laberinto a exportar, null después de ejecutar el trabajo para no retenerlo
+     */
+    private Laberinto laberinto;
+    private volatile Estado estado = Estado.EN_COLA;
+    private volatile long casillasDibujadas;
+    private volatile long bytesEscritos;
+    private volatile Path archivo;
+    private volatile String error;
+
+    /**
+     * Crea un trabajo en la cola
+     * @param laberinto el Laberinto a exportar
+     * @param directorio el directorio donde se guarda la imagen
+     * @param formato el formato de la imagen
+     * @param medidas las medidas en px de las casillas y las paredes
+     * @param nivel el nivel de compresión de deflate de los PNG, de 0 a 9 o -1 para el nivel por omisión
+     * @param paralelo donde se comprimen los PNG en paralelo, null para comprimir en el hilo del trabajo
+     */
+    public TrabajoExportacion(Laberinto laberinto, String directorio, FormatoImagen formato, MedidasImagen medidas,
+            int nivel, Executor paralelo) {
+        this.laberinto = laberinto;
+        this.directorio = directorio;
+        this.formato = formato;
+        this.medidas = medidas;
+        this.nivel = nivel;
+        this.paralelo = paralelo;
+        this.ancho = laberinto.getAncho();
+        this.casillasTotales = (long) laberinto.getAlto() * laberinto.getAncho();
+    }
+
+    /**
+     * Escribe la imagen. Lo llama el ejecutor de los trabajos
+     */
+    @Override
+    public void run() {
+        estado = Estado.EN_PROCESO;
+        Path archivo = LaberintoImage.nombrarImagen(directorio, formato);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                OutputStream salida = new BufferedOutputStream(new Contador(Channels.newOutputStream(canal)), 1 << 16)) {
+            LaberintoImage.escribirImagen(laberinto, salida, formato, medidas, nivel, paralelo,
+                    filas -> casillasDibujadas = (long) filas * ancho);
+            salida.flush();
+            this.archivo = archivo;
+            estado = Estado.TERMINADO;
+        } catch (IOException | RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            estado = Estado.FALLIDO;
+            try {
+                Files.deleteIfExists(archivo);
+            } catch (IOException ignorada) {
+                // El archivo incompleto se queda, pero el trabajo ya está marcado como fallido
+            }
+        } finally {
+            laberinto = null;
+        }
+    }
+
+    /**
+     * Marca al trabajo como fallido sin ejecutarlo
+     * @param error la razón por la que no se ejecutó
+     */
+    void cancelar(String error) {
+        this.error = error;
+        this.laberinto = null;
+        this.estado = Estado.FALLIDO;
+    }
+
+    /**
+     * Nos dice si el trabajo ya no va a cambiar
+     * @return true si terminó o falló, false en otro caso
+     */
+    public boolean estaTerminado() {
+        Estado estado = this.estado;
+        return estado == Estado.TERMINADO || estado == Estado.FALLIDO;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public FormatoImagen getFormato() {
+        return formato;
+    }
+
+    public long getCasillasTotales() {
+        return casillasTotales;
+    }
+
+    public long getCasillasDibujadas() {
+        return casillasDibujadas;
+    }
+
+    public long getBytesEscritos() {
+        return bytesEscritos;
+    }
+
+    /**
+     * Obtiene el archivo de la imagen
+     * @return la ruta del archivo, o null si el trabajo no ha terminado
+     */
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Obtiene la razón por la que falló el trabajo
+     * @return el mensaje de error, o null si no ha fallado
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Cuenta los bytes que se escriben en el archivo
+     */
+    private class Contador extends FilterOutputStream {
+
+        private Contador(OutputStream salida) {
+            super(salida);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytesEscritos++;
+        }
+
+        @Override
+        public void write(byte[] b, int inicio, int longitud) throws IOException {
+            out.write(b, inicio, longitud);
+            bytesEscritos += longitud;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * TrabajosExportacion ejecuta los TrabajoExportacion en sus propios hilos, separados de los
+ * hilos que atienden las peticiones. Tanto los hilos como la cola de trabajos en espera están
+ * acotados: si la cola está llena los trabajos nuevos se rechazan, en lugar de acumularlos
+ */
+@Component
+public class TrabajosExportacion {
+
+    private final ThreadPoolExecutor ejecutor;
+    /**
+     * Avisa periódicamente el avance de los trabajos a quien lo esté siguiendo
+     */
+    private final ScheduledExecutorService avisos;
+    /**
+     * Los trabajos en el orden en que se enviaron
+     */
+    private final LinkedHashMap<String, TrabajoExportacion> trabajos = new LinkedHashMap<>();
+    private final int maximoGuardados;
+
+    /**
+     * Crea el ejecutor de trabajos
+     * @param hilos el número de trabajos que se ejecutan al mismo tiempo
+     * @param cola el número de trabajos que pueden esperar a ejecutarse
+     * @param maximoGuardados el número de trabajos terminados que se recuerdan para consultarlos
+     */
+    public TrabajosExportacion(@Value("${laberinto.exportacion.hilos:2}") int hilos,
+            @Value("${laberinto.exportacion.cola:16}") int cola,
+            @Value("${laberinto.exportacion.trabajos-guardados:256}") int maximoGuardados) {
+        if (hilos <= 0 || cola <= 0) {
+            throw new IllegalArgumentException("Los hilos y la cola de exportación deben ser positivos");
+        }
+        AtomicInteger contador = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola), tarea -> {
+                    Thread hilo = new Thread(tarea, "exportacion-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.avisos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "exportacion-avisos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.maximoGuardados = maximoGuardados;
+    }
+
+    /**
+     * Envía un trabajo a la cola
+     * @param trabajo el trabajo a ejecutar
+     * @throws RejectedExecutionException si la cola está llena
+     */
+    public void enviar(TrabajoExportacion trabajo) throws RejectedExecutionException {
+        synchronized (this) {
+            trabajos.put(trabajo.getId(), trabajo);
+            olvidarTerminados();
+        }
+        try {
+            ejecutor.execute(trabajo);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                trabajos.remove(trabajo.getId());
+            }
+            trabajo.cancelar("La cola de exportación está llena");
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene un trabajo
+     * @param id el id del trabajo
+     * @return el trabajo, o null si no existe o ya se olvidó
+     */
+    public synchronized TrabajoExportacion obtener(String id) {
+        return trabajos.get(id);
+    }
+
+    /**
+     * Avisa periódicamente el avance de un trabajo, hasta que termine o el observador ya no quiera
+     * más avisos. Después de terminar el trabajo se da un último aviso
+     * @param trabajo el trabajo a seguir
+     * @param periodo el tiempo entre avisos
+     * @param observador recibe el trabajo en cada aviso, y regresa false para dejar de recibirlos
+     */
+    public void observar(TrabajoExportacion trabajo, Duration periodo, Predicate<TrabajoExportacion> observador) {
+        ScheduledFuture<?>[] tarea = new ScheduledFuture<?>[1];
+        Runnable aviso = () -> {
+            boolean terminado = trabajo.estaTerminado();
+            if (!observador.test(trabajo) || terminado) {
+                synchronized (tarea) {
+                    tarea[0].cancel(false);
+                }
+            }
+        };
+        synchronized (tarea) {
+            tarea[0] = avisos.scheduleAtFixedRate(aviso, 0, periodo.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Regresa el número de trabajos que esperan a ejecutarse
+     * @return el tamaño de la cola
+     */
+    public int getEnCola() {
+        return ejecutor.getQueue().size();
+    }
+
+    /**
+     * Regresa el número de trabajos que se están ejecutando
+     * @return el número de trabajos en proceso
+     */
+    public int getEnProceso() {
+        return ejecutor.getActiveCount();
+    }
+
+    /**
+     * Olvida los trabajos terminados más antiguos mientras haya más de los que se guardan
+     */
+    private void olvidarTerminados() {
+        Iterator<TrabajoExportacion> iterador = trabajos.values().iterator();
+        int sobran = trabajos.size() - maximoGuardados;
+        while (sobran > 0 && iterador.hasNext()) {
+            if (iterador.next().estaTerminado()) {
+                iterador.remove();
+                sobran--;
+            }
+        }
+    }
+
+    /**
+     * Deja de aceptar trabajos al cerrar la aplicación
+     */
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+        avisos.shutdownNow();
+    }
+}
@@ -0,0 +1,27 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Operaciones al azar sobre arreglos de enteros que comparten los generadores
+ */
+final class Aleatorio {
+
+    private Aleatorio() {
+    }
+
+    /**
+     * Revuelve los primeros elementos de un arreglo con el algoritmo de Fisher-Yates
+     * @param arreglo el arreglo
+     * @param longitud el número de elementos a revolver
+     * @param r la fuente de números aleatorios
+     */
+    static void revolver(int[] arreglo, int longitud, RandomGenerator r) {
+        for (int i = longitud - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            int aux = arreglo[i];
+            arreglo[i] = arreglo[j];
+            arreglo[j] = aux;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+/**
+ * Los algoritmos de generación disponibles, con el nombre con el que se piden en la
+ * aplicación. Cada uno lleva su costo aproximado por Casilla, además de la cuadrícula: los
+ * bytes de sus estructuras en el peor caso y los nanosegundos medidos en un laberinto de
+ * 2000x2000, redondeados hacia arriba
+ */
+public enum Algoritmo {
+
+    // La IntPila puede llegar a tener todas las Casillas, y al crecer copia su arreglo
+    DFS("dfs", new GeneradorDFS(), 8, 35),
+    // Las paredes y los padres del union-find
+    KRUSKAL("kruskal", new GeneradorKruskal(), 12, 140),
+    // La frontera y su BitSet
+    PRIM("prim", new GeneradorPrim(), 5, 60),
+    // La salida de cada Casilla en la caminata
+    WILSON("wilson", new GeneradorWilson(), 1, 100),
+    ARBOL_BINARIO("arbol-binario", new GeneradorArbolBinario(), 0, 15),
+    SIDEWINDER("sidewinder", new GeneradorSidewinder(), 0, 15),
+    // Sólo guarda un par de filas
+    ELLER("eller", new GeneradorEller(), 0, 80);
+
+    private final String nombre;
+    private final Generador generador;
+    private final int bytesPorCasilla;
+    private final int nanosPorCasilla;
+
+    private Algoritmo(String nombre, Generador generador, int bytesPorCasilla, int nanosPorCasilla) {
+        this.nombre = nombre;
+        this.generador = generador;
+        this.bytesPorCasilla = bytesPorCasilla;
+        this.nanosPorCasilla = nanosPorCasilla;
+    }
+
+    /**
+     * Busca un algoritmo por su nombre, sin importar mayúsculas
+     * @param nombre el nombre del algoritmo
+     * @return el algoritmo con ese nombre
+     * @throws IllegalArgumentException si no hay un algoritmo con ese nombre
+     */
+    public static Algoritmo buscar(String nombre) throws IllegalArgumentException {
+        for (Algoritmo algoritmo : values()) {
+            if (algoritmo.nombre.equalsIgnoreCase(nombre)) {
+                return algoritmo;
+            }
+        }
+        throw new IllegalArgumentException("No existe el algoritmo: " + nombre);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public Generador getGenerador() {
+        return generador;
+    }
+
+    /**
+     * Regresa los bytes que usa el algoritmo por Casilla durante la generación, sin contar la cuadrícula
+     * @return el número de bytes en el peor caso
+     */
+    public int getBytesPorCasilla() {
+        return bytesPorCasilla;
+    }
+
+    /**
+     * Regresa el tiempo aproximado que tarda el algoritmo por Casilla
+     * @return el número de nanosegundos
+     */
+    public int getNanosPorCasilla() {
+        return nanosPorCasilla;
+    }
+}
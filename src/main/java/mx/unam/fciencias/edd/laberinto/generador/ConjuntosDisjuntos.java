@@ -0,0 +1,66 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.Arrays;
+
+/**
+ * Estructura union-find sobre los enteros de 0 a n - 1, con compresión de caminos y
+ * unión por tamaño, guardada en arreglos de enteros
+ */
+class ConjuntosDisjuntos {
+
+    /**
+     * El padre de cada elemento, o el negativo del tamaño del conjunto si es raíz
+     */
+    private final int[] padres;
+
+    /**
+     * Crea n conjuntos, cada uno con un solo elemento
+     * @param n el número de elementos
+     */
+    ConjuntosDisjuntos(int n) {
+        padres = new int[n];
+        Arrays.fill(padres, -1);
+    }
+
+    /**
+     * Encuentra al representante del conjunto de un elemento
+     * @param elemento el elemento
+     * @return el representante de su conjunto
+     */
+    int buscar(int elemento) {
+        int raiz = elemento;
+        while (padres[raiz] >= 0) {
+            raiz = padres[raiz];
+        }
+        // Compresión de caminos
+        while (padres[elemento] >= 0) {
+            int siguiente = padres[elemento];
+            padres[elemento] = raiz;
+            elemento = siguiente;
+        }
+        return raiz;
+    }
+
+    /**
+     * Une los conjuntos de dos elementos
+     * @param a un elemento
+     * @param b otro elemento
+     * @return true si estaban en conjuntos distintos, false si ya estaban unidos
+     */
+    boolean unir(int a, int b) {
+        a = buscar(a);
+        b = buscar(b);
+        if (a == b) {
+            return false;
+        }
+        // El conjunto más chico se cuelga del más grande
+        if (padres[a] > padres[b]) {
+            int aux = a;
+            a = b;
+            b = aux;
+        }
+        padres[a] += padres[b];
+        padres[b] = a;
+        return true;
+    }
+}
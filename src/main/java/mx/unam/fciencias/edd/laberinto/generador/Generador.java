@@ -0,0 +1,21 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.random.RandomGenerator;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+
+/**
+ * Un Generador abre pasos en una cuadrícula con todas sus paredes habilitadas hasta
+ * formar un Laberinto perfecto, es decir, uno donde hay un solo camino entre
+ * cualquier par de Casillas
+ */
+public interface Generador {
+
+    /**
+     * Genera el Laberinto en la cuadrícula. Al terminar ninguna Casilla debe quedar
+     * marcada como visitada
+     * @param cuadricula la cuadrícula con todas sus paredes habilitadas
+     * @param aleatorio la fuente de números aleatorios a usar durante toda la generación
+     */
+    public void generar(CuadriculaCompacta cuadricula, RandomGenerator aleatorio);
+}
@@ -0,0 +1,31 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.random.RandomGenerator;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+
+/**
+ * Genera el Laberinto como un árbol binario: cada Casilla abre el paso al norte o al
+ * este, al azar. No necesita memoria extra, pero el Laberinto tiene pasillos rectos a lo
+ * largo de la última fila y la última columna
+ */
+public class GeneradorArbolBinario implements Generador {
+
+    @Override
+    public void generar(CuadriculaCompacta cuadricula, RandomGenerator r) {
+        int ancho = cuadricula.getAncho();
+        int alto = cuadricula.getAlto();
+        for (int casilla = 0; casilla < cuadricula.getTamanio(); casilla++) {
+            boolean norte = cuadricula.y(casilla) + 1 < alto;
+            boolean este = cuadricula.x(casilla) + 1 < ancho;
+            if (norte && este) {
+                cuadricula.conectar(casilla, r.nextBoolean() ? Direccion.NORTE : Direccion.ESTE);
+            } else if (norte) {
+                cuadricula.conectar(casilla, Direccion.NORTE);
+            } else if (este) {
+                cuadricula.conectar(casilla, Direccion.ESTE);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.random.RandomGenerator;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+import mx.unam.fciencias.edd.util.IntPila;
+
+/**
+ * Genera el Laberinto con un recorrido DFS al azar (recursive backtracker). Produce
+ * pasillos largos, pero la Pila puede llegar a tener todas las Casillas, así que guarda
+ * sus índices en una IntPila, sin crear un objeto por Casilla
+ */
+public class GeneradorDFS implements Generador {
+
+    @Override
+    public void generar(CuadriculaCompacta cuadricula, RandomGenerator r) {
+        Direccion[] vecinos = new Direccion[4];
+        int casilla = cuadricula.indice(r.nextInt(cuadricula.getAncho()), r.nextInt(cuadricula.getAlto()));
+        cuadricula.visitar(casilla);
+        IntPila pila = new IntPila();
+        pila.push(casilla);
+        while (!pila.esVacio()) {
+            casilla = pila.peek();
+            int total = obtenerVecinosSinVisitar(cuadricula, casilla, vecinos);
+            if (total == 0) {
+                pila.pop();
+            } else {
+                int vecino = cuadricula.conectar(casilla, vecinos[r.nextInt(total)]);
+                cuadricula.visitar(vecino);
+                pila.push(vecino);
+            }
+        }
+        cuadricula.desmarcarVisitadas();
+    }
+
+    /**
+     * Guarda en un arreglo las direcciones hacia las Casillas adyacentes que no han sido visitadas
+     * @param cuadricula la cuadrícula
+     * @param casilla el índice de la Casilla
+     * @param vecinos el arreglo, de longitud al menos 4, donde se guardan las direcciones
+     * @return el número de direcciones guardadas
+     */
+    private static int obtenerVecinosSinVisitar(CuadriculaCompacta cuadricula, int casilla, Direccion[] vecinos) {
+        int total = 0;
+        for (Direccion direccion : Direccion.DIRECCIONES) {
+            int vecino = cuadricula.vecino(casilla, direccion);
+            if (vecino >= 0 && !cuadricula.fueVisitada(vecino)) {
+                vecinos[total++] = direccion;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,219 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.random.RandomGenerator;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+
+/**
+ * Genera el Laberinto fila por fila con el algoritmo de Eller. De cada fila sólo se
+ * recuerda a qué conjunto pertenece cada Casilla, así que la memoria necesaria es
+ * proporcional al ancho y no depende del alto
+ */
+public class GeneradorEller implements Generador {
+
+    @Override
+    public void generar(CuadriculaCompacta cuadricula, RandomGenerator r) {
+        Filas filas = new Filas(cuadricula.getAncho(), cuadricula.getAlto(), r);
+        while (filas.haySiguiente()) {
+            int y = filas.getFila();
+            byte[] pasos = filas.siguiente();
+            for (int x = 0; x < pasos.length; x++) {
+                cuadricula.abrirPaso(cuadricula.indice(x, y), pasos[x]);
+            }
+        }
+    }
+
+    /**
+     * Produce las filas del Laberinto una por una, sin guardar las filas anteriores.
+     * Cada fila es un arreglo con los bits de paso de la CuadriculaCompacta de cada Casilla
+     */
+    public static class Filas {
+
+        private final int ancho;
+        private final int alto;
+        private final RandomGenerator r;
+        /**
+         * La fila que se generará en la siguiente llamada
+         */
+        private int fila;
+        /**
+         * El conjunto de cada Casilla de la fila actual, -1 si aún no tiene
+         */
+        private final int[] conjuntos;
+        /**
+         * Union-find sobre los conjuntos de la fila actual
+         */
+        private final int[] padres;
+        /**
+         * Arreglos auxiliares, indexados por conjunto
+         */
+        private final int[] renombres;
+        private final int[] cuentas;
+        private final int[] candidatas;
+        private final boolean[] conBajada;
+        /**
+         * Los pasos de la fila actual y de la siguiente, que ya tiene abiertos los
+         * pasos al sur que bajan de la fila actual
+         */
+        private byte[] pasos;
+        private byte[] siguientesPasos;
+
+        /**
+         * Prepara la generación de un Laberinto
+         * @param ancho el número de casillas de ancho
+         * @param alto el número de casillas de alto
+         * @param r la fuente de números aleatorios
+         */
+        public Filas(int ancho, int alto, RandomGenerator r) {
+            if (ancho <= 0 || alto <= 0) {
+                throw new IllegalArgumentException("Las dimensiones deben ser positivas");
+            }
+            this.ancho = ancho;
+            this.alto = alto;
+            this.r = r;
+            this.conjuntos = new int[ancho];
+            this.padres = new int[ancho];
+            this.renombres = new int[ancho];
+            this.cuentas = new int[ancho];
+            this.candidatas = new int[ancho];
+            this.conBajada = new boolean[ancho];
+            this.pasos = new byte[ancho];
+            this.siguientesPasos = new byte[ancho];
+            Arrays.fill(conjuntos, -1);
+        }
+
+        /**
+         * Nos dice si faltan filas por generar
+         * @return true si faltan filas, false en otro caso
+         */
+        public boolean haySiguiente() {
+            return fila < alto;
+        }
+
+        /**
+         * Regresa la y-coordenada de la fila que se generará en la siguiente llamada
+         * @return la y-coordenada de la siguiente fila
+         */
+        public int getFila() {
+            return fila;
+        }
+
+        /**
+         * Genera la siguiente fila. El arreglo regresado se reutiliza, sólo es válido
+         * hasta la siguiente llamada
+         * @return los bits de paso de cada Casilla de la fila
+         * @throws NoSuchElementException si ya se generaron todas las filas
+         */
+        public byte[] siguiente() throws NoSuchElementException {
+            if (!haySiguiente()) {
+                throw new NoSuchElementException("Ya se generaron todas las filas");
+            }
+            boolean ultima = fila + 1 == alto;
+            int total = numerarConjuntos();
+
+            // Se unen al azar Casillas vecinas de conjuntos distintos. En la última fila
+            // se unen todas para que el Laberinto quede conectado
+            for (int x = 0; x + 1 < ancho; x++) {
+                int a = buscar(conjuntos[x]);
+                int b = buscar(conjuntos[x + 1]);
+                if (a != b && (ultima || r.nextBoolean())) {
+                    pasos[x] |= CuadriculaCompacta.ESTE;
+                    pasos[x + 1] |= CuadriculaCompacta.OESTE;
+                    padres[b] = a;
+                }
+            }
+            for (int x = 0; x < ancho; x++) {
+                conjuntos[x] = buscar(conjuntos[x]);
+            }
+
+            Arrays.fill(siguientesPasos, (byte) 0);
+            if (!ultima) {
+                bajar(total);
+            }
+
+            byte[] resultado = pasos;
+            pasos = siguientesPasos;
+            siguientesPasos = resultado;
+            fila++;
+            return resultado;
+        }
+
+        /**
+         * Renombra los conjuntos que bajaron de la fila anterior como 0, 1, ..., y les da
+         * un conjunto nuevo a las Casillas que no tienen. Así los conjuntos siempre son
+         * menores que el ancho
+         * @return el número de conjuntos de la fila
+         */
+        private int numerarConjuntos() {
+            Arrays.fill(renombres, -1);
+            int total = 0;
+            for (int x = 0; x < ancho; x++) {
+                int conjunto = conjuntos[x];
+                if (conjunto >= 0) {
+                    if (renombres[conjunto] < 0) {
+                        renombres[conjunto] = total++;
+                    }
+                    conjuntos[x] = renombres[conjunto];
+                }
+            }
+            for (int x = 0; x < ancho; x++) {
+                if (conjuntos[x] < 0) {
+                    conjuntos[x] = total++;
+                }
+            }
+            for (int i = 0; i < total; i++) {
+                padres[i] = i;
+            }
+            return total;
+        }
+
+        /**
+         * Abre pasos al norte al azar, al menos uno por conjunto, y deja en la siguiente
+         * fila sólo los conjuntos de las Casillas que bajaron
+         * @param total el número de conjuntos de la fila
+         */
+        private void bajar(int total) {
+            Arrays.fill(cuentas, 0, total, 0);
+            Arrays.fill(conBajada, 0, total, false);
+            for (int x = 0; x < ancho; x++) {
+                int conjunto = conjuntos[x];
+                // Se elige uniformemente una Casilla de cada conjunto por si ninguna baja
+                cuentas[conjunto]++;
+                if (r.nextInt(cuentas[conjunto]) == 0) {
+                    candidatas[conjunto] = x;
+                }
+                if (r.nextBoolean()) {
+                    conBajada[conjunto] = true;
+                    abrirNorte(x);
+                }
+            }
+            for (int x = 0; x < ancho; x++) {
+                int conjunto = conjuntos[x];
+                if (!conBajada[conjunto]) {
+                    conBajada[conjunto] = true;
+                    abrirNorte(candidatas[conjunto]);
+                }
+            }
+            for (int x = 0; x < ancho; x++) {
+                if ((siguientesPasos[x] & CuadriculaCompacta.SUR) == 0) {
+                    conjuntos[x] = -1;
+                }
+            }
+        }
+
+        private void abrirNorte(int x) {
+            pasos[x] |= CuadriculaCompacta.NORTE;
+            siguientesPasos[x] |= CuadriculaCompacta.SUR;
+        }
+
+        private int buscar(int conjunto) {
+            while (padres[conjunto] != conjunto) {
+                padres[conjunto] = padres[padres[conjunto]];
+                conjunto = padres[conjunto];
+            }
+            return conjunto;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.random.RandomGenerator;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+
+/**
+ * Genera el Laberinto con el algoritmo de Kruskal al azar: recorre todas las paredes
+ * en orden aleatorio y abre las que separan Casillas de conjuntos distintos, usando
+ * una estructura union-find
+ */
+public class GeneradorKruskal implements Generador {
+
+    @Override
+    public void generar(CuadriculaCompacta cuadricula, RandomGenerator r) {
+        int ancho = cuadricula.getAncho();
+        int alto = cuadricula.getAlto();
+
+        // Cada pared se codifica como 2 * casilla + 0 si es la pared este, + 1 si es la norte
+        int[] paredes = new int[(ancho - 1) * alto + ancho * (alto - 1)];
+        int total = 0;
+        for (int casilla = 0; casilla < cuadricula.getTamanio(); casilla++) {
+            if (cuadricula.x(casilla) + 1 < ancho) {
+                paredes[total++] = casilla << 1;
+            }
+            if (cuadricula.y(casilla) + 1 < alto) {
+                paredes[total++] = (casilla << 1) | 1;
+            }
+        }
+        Aleatorio.revolver(paredes, total, r);
+
+        ConjuntosDisjuntos conjuntos = new ConjuntosDisjuntos(cuadricula.getTamanio());
+        int faltantes = cuadricula.getTamanio() - 1;
+        for (int i = 0; i < total && faltantes > 0; i++) {
+            int casilla = paredes[i] >>> 1;
+            Direccion direccion = (paredes[i] & 1) == 0 ? Direccion.ESTE : Direccion.NORTE;
+            int vecino = cuadricula.vecino(casilla, direccion);
+            if (conjuntos.unir(casilla, vecino)) {
+                cuadricula.conectar(casilla, direccion);
+                faltantes--;
+            }
+        }
+    }
+}
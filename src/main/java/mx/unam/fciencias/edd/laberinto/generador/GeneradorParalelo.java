@@ -0,0 +1,166 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+
+/**
+ * Genera el Laberinto en paralelo: divide la cuadrícula en regiones rectangulares, genera un
+ * Laberinto perfecto en cada región con otro Generador en un ForkJoinPool, y después las une
+ * abriendo una sola pared por cada arista de un árbol generador al azar sobre las regiones
+ * vecinas. Como cada región es un árbol y las regiones se unen en un árbol, el resultado también
+ * es un Laberinto perfecto. Las fronteras entre regiones quedan como paredes largas con un solo paso
+ */
+public class GeneradorParalelo implements Generador {
+
+    /**
+     * El número de Casillas de lado de las regiones, aproximadamente
+     */
+    public static final int LADO_REGION = 256;
+
+    private final Generador base;
+    private final ForkJoinPool pool;
+    private final int ladoRegion;
+
+    /**
+     * Crea un generador que usa el pool común y regiones de {@link #LADO_REGION} Casillas de lado
+     * @param base el generador de cada región
+     */
+    public GeneradorParalelo(Generador base) {
+        this(base, ForkJoinPool.commonPool(), LADO_REGION);
+    }
+
+    /**
+     * Crea un generador
+     * @param base el generador de cada región
+     * @param pool donde se generan las regiones
+     * @param ladoRegion el número aproximado de Casillas de lado de las regiones
+     */
+    public GeneradorParalelo(Generador base, ForkJoinPool pool, int ladoRegion) {
+        if (ladoRegion < 2) {
+            throw new IllegalArgumentException("Las regiones deben tener por lo menos 2 Casillas de lado");
+        }
+        this.base = base;
+        this.pool = pool;
+        this.ladoRegion = ladoRegion;
+    }
+
+    @Override
+    public void generar(CuadriculaCompacta cuadricula, RandomGenerator r) {
+        int ancho = cuadricula.getAncho();
+        int alto = cuadricula.getAlto();
+        int columnas = (ancho + ladoRegion - 1) / ladoRegion;
+        int filas = (alto + ladoRegion - 1) / ladoRegion;
+        if (columnas * filas == 1) {
+            base.generar(cuadricula, r);
+            return;
+        }
+
+        // Las semillas se sacan en este hilo para que el Laberinto sólo dependa de r
+        Region[] regiones = new Region[columnas * filas];
+        for (int j = 0; j < filas; j++) {
+            for (int i = 0; i < columnas; i++) {
+                regiones[j * columnas + i] = new Region(cuadricula, limite(i, columnas, ancho),
+                        limite(i + 1, columnas, ancho), limite(j, filas, alto), limite(j + 1, filas, alto),
+                        r.nextLong());
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(regiones);
+            }
+        });
+        unir(cuadricula, regiones, columnas, filas, r);
+    }
+
+    /**
+     * Calcula dónde empieza una de las partes iguales en las que se divide una longitud
+     */
+    private static int limite(int parte, int partes, int longitud) {
+        return (int) ((long) parte * longitud / partes);
+    }
+
+    /**
+     * Une las regiones con un árbol generador al azar, con el algoritmo de Kruskal sobre las
+     * fronteras entre regiones vecinas, abriendo una pared al azar de cada frontera del árbol
+     */
+    private static void unir(CuadriculaCompacta cuadricula, Region[] regiones, int columnas, int filas,
+            RandomGenerator r) {
+        // Cada frontera se codifica como 2 * región + 0 si es la del este, + 1 si es la del norte
+        int[] fronteras = new int[(columnas - 1) * filas + columnas * (filas - 1)];
+        int total = 0;
+        for (int region = 0; region < regiones.length; region++) {
+            if (region % columnas + 1 < columnas) {
+                fronteras[total++] = region << 1;
+            }
+            if (region / columnas + 1 < filas) {
+                fronteras[total++] = (region << 1) | 1;
+            }
+        }
+        Aleatorio.revolver(fronteras, total, r);
+
+        ConjuntosDisjuntos conjuntos = new ConjuntosDisjuntos(regiones.length);
+        int faltantes = regiones.length - 1;
+        for (int i = 0; i < total && faltantes > 0; i++) {
+            int region = fronteras[i] >>> 1;
+            boolean este = (fronteras[i] & 1) == 0;
+            int vecina = este ? region + 1 : region + columnas;
+            if (!conjuntos.unir(region, vecina)) {
+                continue;
+            }
+            Region actual = regiones[region];
+            if (este) {
+                int y = actual.yInicio + r.nextInt(actual.yFin - actual.yInicio);
+                cuadricula.conectar(cuadricula.indice(actual.xFin - 1, y), Direccion.ESTE);
+            } else {
+                int x = actual.xInicio + r.nextInt(actual.xFin - actual.xInicio);
+                cuadricula.conectar(cuadricula.indice(x, actual.yFin - 1), Direccion.NORTE);
+            }
+            faltantes--;
+        }
+    }
+
+    /**
+     * Una región de la cuadrícula, que se genera en su propia cuadrícula y después se copia
+     */
+    private class Region extends RecursiveAction {
+
+        private static final long serialVersionUID = -445317390467322509L;
+
+        private final CuadriculaCompacta cuadricula;
+        private final int xInicio;
+        private final int xFin;
+        private final int yInicio;
+        private final int yFin;
+        private final long semilla;
+
+        private Region(CuadriculaCompacta cuadricula, int xInicio, int xFin, int yInicio, int yFin, long semilla) {
+            this.cuadricula = cuadricula;
+            this.xInicio = xInicio;
+            this.xFin = xFin;
+            this.yInicio = yInicio;
+            this.yFin = yFin;
+            this.semilla = semilla;
+        }
+
+        @Override
+        protected void compute() {
+            int ancho = xFin - xInicio;
+            CuadriculaCompacta region = new CuadriculaCompacta(yFin - yInicio, ancho);
+            base.generar(region, new SplittableRandom(semilla));
+            // Las regiones no comparten Casillas, así que se pueden copiar al mismo tiempo
+            for (int y = yInicio; y < yFin; y++) {
+                int origen = region.indice(0, y - yInicio);
+                int destino = cuadricula.indice(xInicio, y);
+                for (int x = 0; x < ancho; x++) {
+                    cuadricula.abrirPaso(destino + x, region.getPasos(origen + x));
+                }
+            }
+        }
+    }
+}
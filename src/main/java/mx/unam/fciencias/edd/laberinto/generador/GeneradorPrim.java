@@ -0,0 +1,61 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.BitSet;
+import java.util.random.RandomGenerator;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+
+/**
+ * Genera el Laberinto con el algoritmo de Prim al azar: mantiene la frontera de Casillas
+ * vecinas al Laberinto, y en cada paso conecta una Casilla al azar de la frontera con
+ * una de sus vecinas que ya está en el Laberinto. Produce muchos callejones cortos
+ */
+public class GeneradorPrim implements Generador {
+
+    @Override
+    public void generar(CuadriculaCompacta cuadricula, RandomGenerator r) {
+        BitSet enFrontera = new BitSet(cuadricula.getTamanio());
+        int[] frontera = new int[cuadricula.getTamanio()];
+        int tamanio = 0;
+        Direccion[] visitadas = new Direccion[4];
+
+        int casilla = cuadricula.indice(r.nextInt(cuadricula.getAncho()), r.nextInt(cuadricula.getAlto()));
+        cuadricula.visitar(casilla);
+        tamanio = agregarFrontera(cuadricula, casilla, enFrontera, frontera, tamanio);
+        while (tamanio > 0) {
+            // Se saca una Casilla al azar de la frontera, moviendo la última a su lugar
+            int i = r.nextInt(tamanio);
+            casilla = frontera[i];
+            frontera[i] = frontera[--tamanio];
+
+            int total = 0;
+            for (Direccion direccion : Direccion.DIRECCIONES) {
+                int vecino = cuadricula.vecino(casilla, direccion);
+                if (vecino >= 0 && cuadricula.fueVisitada(vecino)) {
+                    visitadas[total++] = direccion;
+                }
+            }
+            cuadricula.conectar(casilla, visitadas[r.nextInt(total)]);
+            cuadricula.visitar(casilla);
+            tamanio = agregarFrontera(cuadricula, casilla, enFrontera, frontera, tamanio);
+        }
+        cuadricula.desmarcarVisitadas();
+    }
+
+    /**
+     * Agrega a la frontera las vecinas de una Casilla que no están en el Laberinto
+     * @return el nuevo tamaño de la frontera
+     */
+    private static int agregarFrontera(CuadriculaCompacta cuadricula, int casilla, BitSet enFrontera,
+            int[] frontera, int tamanio) {
+        for (Direccion direccion : Direccion.DIRECCIONES) {
+            int vecino = cuadricula.vecino(casilla, direccion);
+            if (vecino >= 0 && !cuadricula.fueVisitada(vecino) && !enFrontera.get(vecino)) {
+                enFrontera.set(vecino);
+                frontera[tamanio++] = vecino;
+            }
+        }
+        return tamanio;
+    }
+}
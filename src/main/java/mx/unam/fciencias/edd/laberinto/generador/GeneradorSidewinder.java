@@ -0,0 +1,38 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.random.RandomGenerator;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+
+/**
+ * Genera el Laberinto fila por fila con el algoritmo sidewinder: en cada fila se forman
+ * tramos al este de longitud aleatoria, y cada tramo abre un paso al norte desde una de
+ * sus Casillas. Sólo necesita recordar dónde empezó el tramo actual
+ */
+public class GeneradorSidewinder implements Generador {
+
+    @Override
+    public void generar(CuadriculaCompacta cuadricula, RandomGenerator r) {
+        int ancho = cuadricula.getAncho();
+        int alto = cuadricula.getAlto();
+        for (int y = 0; y < alto; y++) {
+            boolean ultimaFila = y + 1 == alto;
+            int inicioTramo = 0;
+            for (int x = 0; x < ancho; x++) {
+                int casilla = cuadricula.indice(x, y);
+                // En la última fila no se puede subir, así que se forma un solo tramo
+                boolean cerrarTramo = x + 1 == ancho || (!ultimaFila && r.nextBoolean());
+                if (cerrarTramo) {
+                    if (!ultimaFila) {
+                        int elegida = inicioTramo + r.nextInt(x - inicioTramo + 1);
+                        cuadricula.conectar(cuadricula.indice(elegida, y), Direccion.NORTE);
+                    }
+                    inicioTramo = x + 1;
+                } else {
+                    cuadricula.conectar(casilla, Direccion.ESTE);
+                }
+            }
+        }
+    }
+}
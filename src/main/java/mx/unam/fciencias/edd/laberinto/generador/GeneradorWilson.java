@@ -0,0 +1,44 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import java.util.random.RandomGenerator;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+
+/**
+ * Genera el Laberinto con el algoritmo de Wilson: desde cada Casilla fuera del Laberinto
+ * hace una caminata al azar hasta tocar el Laberinto, borrando los ciclos, y agrega el
+ * camino resultante. Todos los Laberintos posibles tienen la misma probabilidad
+ */
+public class GeneradorWilson implements Generador {
+
+    @Override
+    public void generar(CuadriculaCompacta cuadricula, RandomGenerator r) {
+        // La última dirección en que se salió de cada Casilla durante la caminata. Al
+        // sobrescribirla cuando se regresa a una Casilla se borran los ciclos
+        byte[] salidas = new byte[cuadricula.getTamanio()];
+        cuadricula.visitar(cuadricula.indice(r.nextInt(cuadricula.getAncho()), r.nextInt(cuadricula.getAlto())));
+
+        for (int inicio = 0; inicio < cuadricula.getTamanio(); inicio++) {
+            int casilla = inicio;
+            while (!cuadricula.fueVisitada(casilla)) {
+                Direccion direccion;
+                int vecino;
+                do {
+                    direccion = Direccion.DIRECCIONES[r.nextInt(4)];
+                    vecino = cuadricula.vecino(casilla, direccion);
+                } while (vecino < 0);
+                salidas[casilla] = (byte) direccion.ordinal();
+                casilla = vecino;
+            }
+
+            // Se agrega al Laberinto el camino sin ciclos
+            casilla = inicio;
+            while (!cuadricula.fueVisitada(casilla)) {
+                cuadricula.visitar(casilla);
+                casilla = cuadricula.conectar(casilla, Direccion.DIRECCIONES[salidas[casilla]]);
+            }
+        }
+        cuadricula.desmarcarVisitadas();
+    }
+}
@@ -0,0 +1,414 @@
+package mx.unam.fciencias.edd.laberinto.imagen;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * EscritorPng escribe una imagen PNG con paleta de colores renglón por renglón en un
+ * flujo de salida. Los renglones se comprimen y se escriben conforme llegan, así que
+ * sólo se guarda en memoria un renglón y un bloque de datos comprimidos. Con un Executor
+ * los renglones se juntan en bloques que se comprimen en paralelo, cada uno con los últimos
+ * 32 KB del anterior como diccionario, y se escriben en orden; en memoria se guardan a lo
+ * más unos cuantos bloques por hilo
+ */
+public class EscritorPng {
+
+    /**
+     * Los bytes con los que empieza todo archivo PNG
+     */
+    private static final byte[] FIRMA = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    /**
+     * El tamaño máximo de cada bloque IDAT
+     */
+    private static final int TAMANIO_IDAT = 1 << 16;
+
+    /**
+     * Tipo de color con paleta en el encabezado IHDR
+     */
+    private static final int COLOR_PALETA = 3;
+
+    /**
+     * El número de bytes sin comprimir de cada bloque que se comprime en paralelo
+     */
+    private static final int TAMANIO_BLOQUE = 1 << 18;
+    /**
+     * El tamaño de la ventana de deflate, que es lo más atrás que puede referirse un bloque
+     */
+    private static final int VENTANA = 1 << 15;
+    /**
+     * El número de bloques que se comprimen al mismo tiempo por cada procesador
+     */
+    private static final int BLOQUES_POR_PROCESADOR = 2;
+
+    private final OutputStream salida;
+    private final int ancho;
+    private final int alto;
+    private final int bits;
+    private final Deflater deflater;
+    private final DeflaterOutputStream comprimido;
+    private final int nivel;
+    private final Executor paralelo;
+    /**
+     * Los bloques que se están comprimiendo en paralelo, en el orden en que se escriben
+     */
+    private final ArrayDeque<CompletableFuture<byte[]>> pendientes = new ArrayDeque<>();
+    private final Adler32 adler = new Adler32();
+    private final SalidaIdat idat;
+    private byte[] bloque;
+    private byte[] bloqueAnterior;
+    private int usadosBloque;
+    private int usadosAnterior;
+    /**
+     * El renglón empacado, con el byte de filtro al inicio
+     */
+    private final byte[] renglon;
+    private int renglonesEscritos;
+
+    /**
+     * Empieza una imagen escribiendo su encabezado y su paleta, con el nivel de compresión por
+     * omisión y sin comprimir en paralelo
+     * @param salida el flujo donde se escribe la imagen, no se cierra al terminar
+     * @param ancho el ancho en px de la imagen
+     * @param alto el alto en px de la imagen
+     * @param paleta los colores de la imagen en formato 0xRRGGBB, a lo más 256
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public EscritorPng(OutputStream salida, int ancho, int alto, int[] paleta) throws IOException {
+        this(salida, ancho, alto, paleta, Deflater.DEFAULT_COMPRESSION, null);
+    }
+
+    /**
+     * Empieza una imagen escribiendo su encabezado y su paleta
+     * @param salida el flujo donde se escribe la imagen, no se cierra al terminar
+     * @param ancho el ancho en px de la imagen
+     * @param alto el alto en px de la imagen
+     * @param paleta los colores de la imagen en formato 0xRRGGBB, a lo más 256
+     * @param nivel el nivel de compresión de deflate, de 0 a 9 o -1 para el nivel por omisión
+     * @param paralelo donde se comprimen los bloques en paralelo, null para comprimir en este hilo
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public EscritorPng(OutputStream salida, int ancho, int alto, int[] paleta, int nivel, Executor paralelo)
+            throws IOException {
+        if (ancho <= 0 || alto <= 0) {
+            throw new IllegalArgumentException("Las dimensiones de la imagen deben ser positivas");
+        }
+        if (paleta.length == 0 || paleta.length > 256) {
+            throw new IllegalArgumentException("La paleta debe tener entre 1 y 256 colores");
+        }
+        this.salida = salida;
+        this.ancho = ancho;
+        this.alto = alto;
+        this.bits = bitsPorPixel(paleta.length);
+        if (nivel < Deflater.DEFAULT_COMPRESSION || nivel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("El nivel de compresión debe estar entre -1 y 9");
+        }
+        this.renglon = new byte[1 + (int) (((long) ancho * bits + 7) / 8)];
+        this.nivel = nivel;
+        this.paralelo = paralelo;
+        this.idat = new SalidaIdat();
+        if (paralelo == null) {
+            this.deflater = new Deflater(nivel);
+            this.comprimido = new DeflaterOutputStream(idat, deflater, TAMANIO_IDAT);
+        } else {
+            this.deflater = null;
+            this.comprimido = null;
+            this.bloque = new byte[Math.max(TAMANIO_BLOQUE, renglon.length)];
+        }
+
+        salida.write(FIRMA);
+        byte[] encabezado = new byte[13];
+        escribirEntero(encabezado, 0, ancho);
+        escribirEntero(encabezado, 4, alto);
+        encabezado[8] = (byte) bits;
+        encabezado[9] = COLOR_PALETA;
+        escribirBloque("IHDR", encabezado, encabezado.length);
+
+        byte[] colores = new byte[paleta.length * 3];
+        for (int i = 0; i < paleta.length; i++) {
+            colores[i * 3] = (byte) (paleta[i] >> 16);
+            colores[i * 3 + 1] = (byte) (paleta[i] >> 8);
+            colores[i * 3 + 2] = (byte) paleta[i];
+        }
+        escribirBloque("PLTE", colores, colores.length);
+    }
+
+    /**
+     * Escribe el siguiente renglón de la imagen
+     * @param pixeles el índice en la paleta de cada pixel del renglón
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public void escribirRenglon(byte[] pixeles) throws IOException {
+        empacar(pixeles, renglon, 0);
+        escribirEmpacado(renglon, 0);
+    }
+
+    /**
+     * Regresa el número de bytes de un renglón empacado, incluyendo el byte de filtro
+     * @return el número de bytes
+     */
+    public int getBytesPorRenglon() {
+        return renglon.length;
+    }
+
+    /**
+     * Escribe el siguiente renglón de la imagen, ya empacado con {@link #empacar}. Así un
+     * renglón que se repite sólo se empaca una vez
+     * @param empacado donde está el renglón empacado
+     * @param posicion dónde empieza el renglón, con su byte de filtro
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public void escribirEmpacado(byte[] empacado, int posicion) throws IOException {
+        if (renglonesEscritos == alto) {
+            throw new IllegalStateException("Ya se escribieron todos los renglones");
+        }
+        int longitud = renglon.length;
+        if (paralelo == null) {
+            comprimido.write(empacado, posicion, longitud);
+        } else {
+            if (usadosBloque + longitud > bloque.length) {
+                enviarBloque(false);
+            }
+            System.arraycopy(empacado, posicion, bloque, usadosBloque, longitud);
+            usadosBloque += longitud;
+        }
+        renglonesEscritos++;
+    }
+
+    /**
+     * Termina la imagen. Se deben haber escrito todos los renglones
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public void terminar() throws IOException {
+        if (renglonesEscritos != alto) {
+            throw new IllegalStateException("Faltan " + (alto - renglonesEscritos) + " renglones");
+        }
+        if (paralelo == null) {
+            comprimido.finish();
+            deflater.end();
+        } else {
+            enviarBloque(true);
+            while (!pendientes.isEmpty()) {
+                escribirPendiente();
+            }
+            byte[] suma = new byte[4];
+            escribirEntero(suma, 0, (int) adler.getValue());
+            idat.write(suma, 0, suma.length);
+        }
+        idat.flush();
+        escribirBloque("IEND", new byte[0], 0);
+        salida.flush();
+    }
+
+    /**
+     * Manda a comprimir el bloque actual y escribe los bloques ya comprimidos que no caben entre
+     * los pendientes. El primer bloque lleva el encabezado de zlib
+     * @param ultimo si es el último bloque de la imagen
+     */
+    private void enviarBloque(boolean ultimo) throws IOException {
+        if (bloqueAnterior == null) {
+            idat.write(encabezadoZlib(nivel), 0, 2);
+        }
+        byte[] datos = bloque;
+        int longitud = usadosBloque;
+        byte[] diccionario = bloqueAnterior;
+        int longitudDiccionario = usadosAnterior;
+        adler.update(datos, 0, longitud);
+        pendientes.add(CompletableFuture.supplyAsync(
+                () -> comprimir(datos, longitud, diccionario, longitudDiccionario, nivel, ultimo), paralelo));
+        int limite = BLOQUES_POR_PROCESADOR * Runtime.getRuntime().availableProcessors();
+        while (pendientes.size() > limite) {
+            escribirPendiente();
+        }
+        // El bloque enviado no se puede reutilizar, lo lee su compresión y la del siguiente
+        bloqueAnterior = datos;
+        usadosAnterior = longitud;
+        bloque = new byte[datos.length];
+        usadosBloque = 0;
+    }
+
+    /**
+     * Espera al bloque pendiente más antiguo y lo escribe
+     */
+    private void escribirPendiente() throws IOException {
+        byte[] comprimidos;
+        try {
+            comprimidos = pendientes.remove().join();
+        } catch (CompletionException e) {
+            throw new IOException("No se pudo comprimir la imagen", e.getCause());
+        }
+        idat.write(comprimidos, 0, comprimidos.length);
+    }
+
+    /**
+     * Comprime un bloque en deflate sin encabezado. Los bloques que no son el último terminan
+     * alineados a un byte para que el siguiente pueda empezar justo después
+     * @param diccionario el bloque anterior, del que se usan sus últimos bytes, o null
+     * @param longitudDiccionario los bytes usados del bloque anterior
+     */
+    private static byte[] comprimir(byte[] datos, int longitud, byte[] diccionario, int longitudDiccionario,
+            int nivel, boolean ultimo) {
+        Deflater deflater = new Deflater(nivel, true);
+        try {
+            if (diccionario != null) {
+                int usados = Math.min(VENTANA, longitudDiccionario);
+                deflater.setDictionary(diccionario, longitudDiccionario - usados, usados);
+            }
+            deflater.setInput(datos, 0, longitud);
+            if (ultimo) {
+                deflater.finish();
+            }
+            byte[] salida = new byte[longitud / 4 + 64];
+            int usados = 0;
+            while (true) {
+                if (usados == salida.length) {
+                    salida = Arrays.copyOf(salida, salida.length * 2);
+                }
+                usados += deflater.deflate(salida, usados, salida.length - usados,
+                        ultimo ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                boolean listo = ultimo ? deflater.finished() : usados < salida.length;
+                if (listo) {
+                    return Arrays.copyOf(salida, usados);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Crea el encabezado de zlib, que indica el método de compresión y el nivel usado
+     */
+    private static byte[] encabezadoZlib(int nivel) {
+        int cmf = 0x78;
+        int flevel;
+        if (nivel == Deflater.DEFAULT_COMPRESSION || nivel == 6) {
+            flevel = 2;
+        } else if (nivel < 2) {
+            flevel = 0;
+        } else if (nivel < 6) {
+            flevel = 1;
+        } else {
+            flevel = 3;
+        }
+        int flg = flevel << 6;
+        flg += (31 - (cmf * 256 + flg) % 31) % 31;
+        return new byte[] { (byte) cmf, (byte) flg };
+    }
+
+    /**
+     * Empaca los índices de los pixeles de un renglón con los bits por pixel de la imagen. El
+     * primer byte del renglón empacado es el filtro, que siempre es 0 (ninguno). No cambia al
+     * escritor, así que se puede llamar desde otros hilos
+     * @param pixeles el índice en la paleta de cada pixel del renglón
+     * @param empacado donde se escribe el renglón empacado, {@link #getBytesPorRenglon} bytes
+     * @param inicio dónde empieza el renglón empacado
+     */
+    public void empacar(byte[] pixeles, byte[] empacado, int inicio) {
+        empacado[inicio] = 0;
+        if (bits == 8) {
+            System.arraycopy(pixeles, 0, empacado, inicio + 1, ancho);
+            return;
+        }
+        int porByte = 8 / bits;
+        int posicion = inicio + 1;
+        int x = 0;
+        while (x < ancho) {
+            int actual = 0;
+            for (int i = 0; i < porByte; i++, x++) {
+                actual <<= bits;
+                if (x < ancho) {
+                    actual |= pixeles[x];
+                }
+            }
+            empacado[posicion++] = (byte) actual;
+        }
+    }
+
+    /**
+     * Escribe un bloque PNG: longitud, tipo, datos y CRC del tipo y los datos
+     */
+    private void escribirBloque(String tipo, byte[] datos, int longitud) throws IOException {
+        byte[] bytesTipo = tipo.getBytes(StandardCharsets.US_ASCII);
+        byte[] entero = new byte[4];
+        escribirEntero(entero, 0, longitud);
+        salida.write(entero);
+        salida.write(bytesTipo);
+        salida.write(datos, 0, longitud);
+        CRC32 crc = new CRC32();
+        crc.update(bytesTipo);
+        crc.update(datos, 0, longitud);
+        escribirEntero(entero, 0, (int) crc.getValue());
+        salida.write(entero);
+    }
+
+    private static void escribirEntero(byte[] arreglo, int posicion, int valor) {
+        arreglo[posicion] = (byte) (valor >>> 24);
+        arreglo[posicion + 1] = (byte) (valor >>> 16);
+        arreglo[posicion + 2] = (byte) (valor >>> 8);
+        arreglo[posicion + 3] = (byte) valor;
+    }
+
+    /**
+     * Obtiene la menor profundidad de bits válida para una paleta
+     */
+    private static int bitsPorPixel(int colores) {
+        if (colores <= 2) {
+            return 1;
+        } else if (colores <= 4) {
+            return 2;
+        } else if (colores <= 16) {
+            return 4;
+        }
+        return 8;
+    }
+
+    /**
+     * Recibe los datos comprimidos y los escribe en bloques IDAT de a lo más TAMANIO_IDAT bytes
+     */
+    private class SalidaIdat extends OutputStream {
+
+        private final byte[] bloque = new byte[TAMANIO_IDAT];
+        private int usados;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (usados == bloque.length) {
+                flush();
+            }
+            bloque[usados++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] datos, int inicio, int longitud) throws IOException {
+            while (longitud > 0) {
+                if (usados == bloque.length) {
+                    flush();
+                }
+                int copiar = Math.min(longitud, bloque.length - usados);
+                System.arraycopy(datos, inicio, bloque, usados, copiar);
+                usados += copiar;
+                inicio += copiar;
+                longitud -= copiar;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (usados > 0) {
+                escribirBloque("IDAT", bloque, usados);
+                usados = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package mx.unam.fciencias.edd.laberinto.imagen;
+
+/**
+ * Los formatos en los que se puede escribir la imagen de un Laberinto, con el nombre con
+ * el que se piden en la aplicación
+ */
+public enum FormatoImagen {
+
+    PNG("png", "image/png"),
+    SVG("svg", "image/svg+xml"),
+    TEXTO("txt", "text/plain;charset=UTF-8");
+
+    private final String nombre;
+    private final String tipo;
+
+    private FormatoImagen(String nombre, String tipo) {
+        this.nombre = nombre;
+        this.tipo = tipo;
+    }
+
+    /**
+     * Busca un formato por su nombre, sin importar mayúsculas
+     * @param nombre el nombre del formato
+     * @return el formato con ese nombre
+     * @throws IllegalArgumentException si no hay un formato con ese nombre
+     */
+    public static FormatoImagen buscar(String nombre) throws IllegalArgumentException {
+        for (FormatoImagen formato : values()) {
+            if (formato.nombre.equalsIgnoreCase(nombre)) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("No existe el formato de imagen: " + nombre);
+    }
+
+    /**
+     * Regresa el nombre del formato, que también es la extensión de sus archivos
+     * @return el nombre del formato
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Regresa el tipo de contenido del formato
+     * @return el tipo MIME
+     */
+    public String getTipo() {
+        return tipo;
+    }
+}
@@ -0,0 +1,249 @@
+package mx.unam.fciencias.edd.laberinto.imagen;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntConsumer;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.generador.GeneradorEller.Filas;
+
+/**
+ * LaberintoFlujo genera un Laberinto con el algoritmo de Eller y escribe su imagen PNG al
+ * mismo tiempo, por franjas de filas. Nunca se guarda el Laberinto completo ni la imagen
+ * completa, sólo las franjas que se están dibujando, por lo que el alto del Laberinto sólo
+ * está limitado por el tamaño que admite el formato PNG. Las franjas se dibujan en paralelo y
+ * se escriben en orden. También escribe la imagen de un Laberinto ya generado de la misma forma
+ */
+public class LaberintoFlujo {
+
+    /**
+     * Los bytes empacados que se buscan por franja, para repartir el dibujo en tareas que valgan
+     * la pena sin guardar demasiado en memoria
+     */
+    private static final int BYTES_FRANJA = 1 << 18;
+    /**
+     * El número de franjas que se dibujan al mismo tiempo por cada procesador
+     */
+    private static final int FRANJAS_POR_PROCESADOR = 2;
+
+    private LaberintoFlujo() {
+    }
+
+    /**
+     * Verifica que la imagen de un Laberinto dibujado con unas medidas se pueda escribir en un PNG
+     * @param alto el número de casillas de alto
+     * @param ancho el número de casillas de ancho
+     * @param medidas las medidas en px de las casillas y las paredes
+     * @return true si las dimensiones en px de la imagen caben en un PNG, false en otro caso
+     */
+    public static boolean esValido(int alto, int ancho, MedidasImagen medidas) {
+        if (alto <= 0 || ancho <= 0) {
+            return false;
+        }
+        return medidas.getAnchoImagen(ancho) <= Integer.MAX_VALUE - 8
+                && medidas.getAltoImagen(alto) <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Genera un Laberinto y escribe su imagen PNG. El Laberinto es el mismo que se obtiene
+     * con el algoritmo eller y la misma semilla
+     * @param alto el número de casillas de alto
+     * @param ancho el número de casillas de ancho
+     * @param semilla la semilla para generar el Laberinto
+     * @param salida donde se escribe la imagen, no se cierra al terminar
+     * @param nivel el nivel de compresión de deflate, de 0 a 9 o -1 para el nivel por omisión
+     * @param paralelo donde se comprime la imagen en paralelo, null para comprimir en este hilo
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public static void escribirPng(int alto, int ancho, long semilla, OutputStream salida, int nivel,
+            Executor paralelo) throws IOException {
+        Filas filas = new Filas(ancho, alto, new SplittableRandom(semilla));
+        escribir(alto, ancho, filas::siguiente, salida, MedidasImagen.POR_OMISION, nivel, paralelo, null);
+    }
+
+    /**
+     * Escribe la imagen PNG de un Laberinto ya generado con unas medidas, leyendo sus filas de la
+     * cuadrícula y avisando cada que se termina de dibujar una fila
+     * @param cuadricula los pasos del Laberinto
+     * @param salida donde se escribe la imagen, no se cierra al terminar
+     * @param medidas las medidas en px de las casillas y las paredes
+     * @param nivel el nivel de compresión de deflate, de 0 a 9 o -1 para el nivel por omisión
+     * @param paralelo donde se comprime la imagen en paralelo, null para comprimir en este hilo
+     * @param progreso recibe el número de filas dibujadas, puede ser null
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public static void escribirPng(CuadriculaCompacta cuadricula, OutputStream salida, MedidasImagen medidas,
+            int nivel, Executor paralelo, IntConsumer progreso) throws IOException {
+        int ancho = cuadricula.getAncho();
+        byte[] fila = new byte[ancho];
+        int[] y = { 0 };
+        FuenteFilas filas = () -> {
+            int inicio = cuadricula.indice(0, y[0]++);
+            for (int x = 0; x < ancho; x++) {
+                fila[x] = (byte) cuadricula.getPasos(inicio + x);
+            }
+            return fila;
+        };
+        escribir(cuadricula.getAlto(), ancho, filas, salida, medidas, nivel, paralelo, progreso);
+    }
+
+    /**
+     * Da los pasos de las filas de un Laberinto, de la primera a la última. Puede reutilizar
+     * el mismo arreglo en cada fila
+     */
+    private interface FuenteFilas {
+        byte[] siguiente();
+    }
+
+    /**
+     * Una franja de filas del Laberinto ya dibujada y empacada. Cada renglón distinto se guarda
+     * una sola vez, con las veces seguidas que aparece en la imagen
+     */
+    private static class Franja {
+        private final byte[] renglones;
+        private final int[] repeticiones;
+        private final int distintos;
+        /**
+         * El número de filas dibujadas hasta el final de la franja
+         */
+        private final int filas;
+
+        private Franja(byte[] renglones, int[] repeticiones, int distintos, int filas) {
+            this.renglones = renglones;
+            this.repeticiones = repeticiones;
+            this.distintos = distintos;
+            this.filas = filas;
+        }
+    }
+
+    /**
+     * Dibuja las filas de un Laberinto y escribe su imagen PNG. Las filas se juntan en franjas que
+     * se dibujan y se empacan en paralelo si hay dónde, y se escriben en orden. Los renglones de
+     * una misma fila son iguales fuera de la marca de la esquina, así que cada uno se dibuja y se
+     * empaca una sola vez
+     * @param paralelo donde se dibujan las franjas y se comprime la imagen, null para hacerlo todo
+     * en este hilo
+     * @param progreso recibe el número de filas dibujadas, puede ser null
+     */
+    private static void escribir(int alto, int ancho, FuenteFilas filas, OutputStream salida, MedidasImagen medidas,
+            int nivel, Executor paralelo, IntConsumer progreso) throws IOException {
+        if (!esValido(alto, ancho, medidas)) {
+            throw new IllegalArgumentException("La imagen del laberinto no cabe en un PNG: " + ancho + "x" + alto);
+        }
+        RenderizadorFilas renderizador = new RenderizadorFilas(ancho, medidas);
+        EscritorPng png = new EscritorPng(salida, (int) renderizador.getAnchoImagen(),
+                (int) renderizador.getAltoImagen(alto), RenderizadorFilas.PALETA, nivel, paralelo);
+        int filasPorFranja = (int) Math.max(1, Math.min(alto, BYTES_FRANJA / (2L * png.getBytesPorRenglon())));
+        int limite = FRANJAS_POR_PROCESADOR * Runtime.getRuntime().availableProcessors();
+        ArrayDeque<CompletableFuture<Franja>> pendientes = new ArrayDeque<>();
+
+        byte[] anterior = null;
+        for (int y = 0; y < alto; y += filasPorFranja) {
+            // Las filas pueden reutilizar su arreglo, así que se copian
+            byte[][] franja = new byte[Math.min(filasPorFranja, alto - y)][];
+            for (int i = 0; i < franja.length; i++) {
+                franja[i] = filas.siguiente().clone();
+            }
+            byte[] arriba = anterior;
+            int fin = y + franja.length;
+            if (paralelo == null) {
+                escribirFranja(png, dibujarFranja(renderizador, png, medidas, arriba, franja, y, fin == alto),
+                        progreso);
+            } else {
+                int inicio = y;
+                pendientes.add(CompletableFuture.supplyAsync(
+                        () -> dibujarFranja(renderizador, png, medidas, arriba, franja, inicio, fin == alto), paralelo));
+                while (pendientes.size() > limite) {
+                    escribirFranja(png, esperar(pendientes.remove()), progreso);
+                }
+            }
+            anterior = franja[franja.length - 1];
+        }
+        while (!pendientes.isEmpty()) {
+            escribirFranja(png, esperar(pendientes.remove()), progreso);
+        }
+        png.terminar();
+    }
+
+    /**
+     * Dibuja y empaca los renglones de una franja de filas. Si es la última franja también dibuja
+     * el borde de abajo de la imagen
+     * @param anterior los pasos de la fila de arriba de la franja, null si es la primera
+     * @param filas los pasos de las filas de la franja
+     * @param primera el número de la primera fila de la franja
+     * @param ultima si la franja termina la imagen
+     */
+    private static Franja dibujarFranja(RenderizadorFilas renderizador, EscritorPng png, MedidasImagen medidas,
+            byte[] anterior, byte[][] filas, int primera, boolean ultima) {
+        int borde = medidas.getBorde();
+        int longitudCasilla = medidas.getLongitudCasilla();
+        int marca = renderizador.getMarca();
+        long renglon = (long) primera * (longitudCasilla + borde);
+        // Dos renglones distintos por fila, el borde final y los que cruzan la marca
+        int maximo = 2 * filas.length + 1 + (renglon <= marca ? marca + 1 : 0);
+        int bytesPorRenglon = png.getBytesPorRenglon();
+        byte[] renglones = new byte[Math.multiplyExact(maximo, bytesPorRenglon)];
+        int[] repeticiones = new int[maximo];
+        byte[] pixeles = new byte[(int) renderizador.getAnchoImagen()];
+        int distintos = 0;
+        for (int y = 0; y <= filas.length; y++) {
+            byte[] actual = y < filas.length ? filas[y] : null;
+            if (actual == null && !ultima) {
+                break;
+            }
+            for (int i = 0; i < borde; i++, renglon++) {
+                if (i == 0 || renglon <= marca) {
+                    renderizador.dibujarBorde(anterior, actual, renglon, pixeles);
+                    png.empacar(pixeles, renglones, distintos++ * bytesPorRenglon);
+                }
+                repeticiones[distintos - 1]++;
+            }
+            if (actual == null) {
+                break;
+            }
+            for (int i = 0; i < longitudCasilla; i++, renglon++) {
+                if (i == 0 || renglon <= marca) {
+                    renderizador.dibujarInterior(actual, renglon, pixeles);
+                    png.empacar(pixeles, renglones, distintos++ * bytesPorRenglon);
+                }
+                repeticiones[distintos - 1]++;
+            }
+            anterior = actual;
+        }
+        return new Franja(renglones, repeticiones, distintos, primera + filas.length);
+    }
+
+    /**
+     * Escribe los renglones de una franja en orden, repitiendo cada uno las veces que aparece
+     */
+    private static void escribirFranja(EscritorPng png, Franja franja, IntConsumer progreso) throws IOException {
+        int bytesPorRenglon = png.getBytesPorRenglon();
+        for (int i = 0; i < franja.distintos; i++) {
+            for (int j = 0; j < franja.repeticiones[i]; j++) {
+                png.escribirEmpacado(franja.renglones, i * bytesPorRenglon);
+            }
+        }
+        if (progreso != null) {
+            progreso.accept(franja.filas);
+        }
+    }
+
+    /**
+     * Espera a que se dibuje una franja, pasando los errores del dibujo a este hilo
+     */
+    private static Franja esperar(CompletableFuture<Franja> franja) {
+        try {
+            return franja.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
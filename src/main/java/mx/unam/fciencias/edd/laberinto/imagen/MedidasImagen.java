@@ -0,0 +1,142 @@
+package mx.unam.fciencias.edd.laberinto.imagen;
+
+/**
+ * MedidasImagen son las medidas en px con las que se dibuja un Laberinto: la longitud de cada
+ * Casilla y el grosor de las paredes. También calcula las medidas más grandes con las que la
+ * imagen de un Laberinto cabe en un número máximo de pixeles, para dibujar vistas previas de
+ * Laberintos muy grandes con Casillas de hasta 1 px
+ */
+public class MedidasImagen {
+
+    /**
+     * Las medidas de siempre: Casillas de 50 px y paredes de 5 px
+     */
+    public static final MedidasImagen POR_OMISION = new MedidasImagen(RenderizadorFilas.LONGITUD_CASILLA,
+            RenderizadorFilas.BORDE);
+    /**
+     * La longitud máxima en px de una Casilla o una pared
+     */
+    public static final int MAXIMO = 1000;
+
+    private final int longitudCasilla;
+    private final int borde;
+
+    /**
+     * Crea unas medidas
+     * @param longitudCasilla la longitud en px de cada Casilla
+     * @param borde el grosor en px de las paredes
+     * @throws IllegalArgumentException si alguna medida no está entre 1 y {@link #MAXIMO}
+     */
+    public MedidasImagen(int longitudCasilla, int borde) throws IllegalArgumentException {
+        if (longitudCasilla < 1 || longitudCasilla > MAXIMO || borde < 1 || borde > MAXIMO) {
+            throw new IllegalArgumentException("Las medidas deben estar entre 1 y " + MAXIMO + " px");
+        }
+        this.longitudCasilla = longitudCasilla;
+        this.borde = borde;
+    }
+
+    /**
+     * Crea unas medidas con el grosor de pared proporcional a la Casilla, como en las medidas por omisión
+     * @param longitudCasilla la longitud en px de cada Casilla
+     * @return las medidas
+     * @throws IllegalArgumentException si la longitud no está entre 1 y {@link #MAXIMO}
+     */
+    public static MedidasImagen proporcionales(int longitudCasilla) throws IllegalArgumentException {
+        return new MedidasImagen(longitudCasilla, bordeProporcional(longitudCasilla + 1));
+    }
+
+    /**
+     * Calcula las medidas más grandes, sin pasar de las medidas por omisión, con las que la imagen de un
+     * Laberinto tiene a lo más un número de pixeles. El grosor de las paredes se mantiene proporcional
+     * hasta llegar a Casillas y paredes de 1 px
+     * @param ancho el número de Casillas de ancho
+     * @param alto el número de Casillas de alto
+     * @param maximoPixeles el número máximo de pixeles de la imagen
+     * @return las medidas
+     * @throws IllegalArgumentException si la imagen no cabe ni con Casillas de 1 px
+     */
+    public static MedidasImagen ajustar(int ancho, int alto, long maximoPixeles) throws IllegalArgumentException {
+        int pasoMaximo = POR_OMISION.longitudCasilla + POR_OMISION.borde;
+        for (int paso = pasoMaximo; paso >= 2; paso--) {
+            int borde = bordeProporcional(paso);
+            MedidasImagen medidas = new MedidasImagen(paso - borde, borde);
+            if (medidas.getPixeles(ancho, alto) <= maximoPixeles) {
+                return medidas;
+            }
+        }
+        throw new IllegalArgumentException("La imagen de un laberinto de " + ancho + "x" + alto
+                + " no cabe en " + maximoPixeles + " pixeles");
+    }
+
+    /**
+     * El grosor de pared que corresponde a la distancia entre Casillas, en la proporción 5:55 de las
+     * medidas por omisión
+     */
+    private static int bordeProporcional(int paso) {
+        return Math.max(1, (paso * POR_OMISION.borde + (POR_OMISION.longitudCasilla + POR_OMISION.borde) / 2)
+                / (POR_OMISION.longitudCasilla + POR_OMISION.borde));
+    }
+
+    /**
+     * Calcula el número de pixeles de la imagen de un Laberinto
+     * @param ancho el número de Casillas de ancho
+     * @param alto el número de Casillas de alto
+     * @return el ancho por el alto en px de la imagen
+     */
+    public long getPixeles(int ancho, int alto) {
+        return getAnchoImagen(ancho) * getAltoImagen(alto);
+    }
+
+    /**
+     * Calcula el ancho en px de la imagen de un Laberinto
+     * @param ancho el número de Casillas de ancho
+     * @return el ancho en px
+     */
+    public long getAnchoImagen(int ancho) {
+        return (long) ancho * (longitudCasilla + borde) + borde;
+    }
+
+    /**
+     * Calcula el alto en px de la imagen de un Laberinto
+     * @param alto el número de Casillas de alto
+     * @return el alto en px
+     */
+    public long getAltoImagen(int alto) {
+        return (long) alto * (longitudCasilla + borde) + borde;
+    }
+
+    public int getLongitudCasilla() {
+        return longitudCasilla;
+    }
+
+    public int getBorde() {
+        return borde;
+    }
+
+    /**
+     * Regresa la longitud en px del cuadro rojo que marca la esquina, proporcional a la Casilla
+     * @return la longitud de la marca, por lo menos 1 px
+     */
+    public int getMarca() {
+        return Math.max(1, longitudCasilla * RenderizadorFilas.MARCA / RenderizadorFilas.LONGITUD_CASILLA);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof MedidasImagen) {
+            MedidasImagen m = (MedidasImagen) obj;
+            return m.longitudCasilla == longitudCasilla && m.borde == borde;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * longitudCasilla + borde;
+    }
+
+    @Override
+    public String toString() {
+        return "MedidasImagen [longitudCasilla=" + longitudCasilla + ", borde=" + borde + "]";
+    }
+}
@@ -0,0 +1,162 @@
+package mx.unam.fciencias.edd.laberinto.imagen;
+
+import java.util.Arrays;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+
+/**
+ * RenderizadorFilas dibuja renglones de pixeles de la imagen de un Laberinto a partir de
+ * los bits de paso de sus filas, sin necesitar el resto del Laberinto. Cada pixel es un
+ * índice en la paleta {@link #PALETA}. El resultado es el mismo que dibuja LaberintoImage:
+ * cada Casilla es un cuadro blanco que se extiende sobre el borde negro hacia donde hay paso
+ */
+public class RenderizadorFilas {
+
+    /**
+     * La longitud en px de cada casilla
+     */
+    public static final int LONGITUD_CASILLA = 50;
+    /**
+     * La longitud del borde de la Casilla, que hace referenncia a la pared
+     */
+    public static final int BORDE = 5;
+    /**
+     * La longitud en px del cuadro rojo que marca la esquina del Laberinto
+     */
+    public static final int MARCA = 30;
+
+    public static final byte NEGRO = 0;
+    public static final byte BLANCO = 1;
+    public static final byte ROJO = 2;
+    /**
+     * Los colores de la imagen, en el orden de sus índices
+     */
+    public static final int[] PALETA = { 0x000000, 0xFFFFFF, 0xFF0000 };
+
+    private final int ancho;
+    private final int longitudCasilla;
+    private final int borde;
+    private final int marca;
+
+    /**
+     * Crea un renderizador con las medidas por omisión
+     * @param ancho el número de casillas de ancho del Laberinto
+     */
+    public RenderizadorFilas(int ancho) {
+        this(ancho, MedidasImagen.POR_OMISION);
+    }
+
+    /**
+     * Crea un renderizador
+     * @param ancho el número de casillas de ancho del Laberinto
+     * @param medidas las medidas en px de las casillas y las paredes
+     */
+    public RenderizadorFilas(int ancho, MedidasImagen medidas) {
+        this.ancho = ancho;
+        this.longitudCasilla = medidas.getLongitudCasilla();
+        this.borde = medidas.getBorde();
+        this.marca = medidas.getMarca();
+    }
+
+    /**
+     * Crea un renderizador
+     * @param ancho el número de casillas de ancho del Laberinto
+     * @param longitudCasilla la longitud en px de cada casilla
+     * @param borde la longitud en px de las paredes
+     */
+    public RenderizadorFilas(int ancho, int longitudCasilla, int borde) {
+        this(ancho, new MedidasImagen(longitudCasilla, borde));
+    }
+
+    /**
+     * Regresa la longitud en px del cuadro rojo que marca la esquina. Los renglones a partir de
+     * ésta son iguales para todas las Casillas de una franja
+     * @return la longitud de la marca
+     */
+    public int getMarca() {
+        return marca;
+    }
+
+    /**
+     * Calcula el ancho en px de la imagen
+     * @return el ancho en px
+     */
+    public long getAnchoImagen() {
+        return (long) ancho * (longitudCasilla + borde) + borde;
+    }
+
+    /**
+     * Calcula el alto en px de la imagen de un Laberinto
+     * @param alto el número de casillas de alto del Laberinto
+     * @return el alto en px
+     */
+    public long getAltoImagen(int alto) {
+        return (long) alto * (longitudCasilla + borde) + borde;
+    }
+
+    /**
+     * Dibuja un renglón de la franja de borde que queda arriba de una fila. La franja es
+     * blanca donde alguna de las dos filas tiene paso hacia la otra
+     * @param anterior los pasos de la fila de arriba, null si es la primera fila
+     * @param actual los pasos de la fila de abajo, null si la franja es la última
+     * @param renglon la y-coordenada en px del renglón
+     * @param pixeles donde se dibuja el renglón
+     */
+    public void dibujarBorde(byte[] anterior, byte[] actual, long renglon, byte[] pixeles) {
+        iniciar(renglon, pixeles);
+        for (int x = 0; x < ancho; x++) {
+            // Cada fila extiende su cuadro también a los lados donde tiene paso
+            if (anterior != null && (anterior[x] & CuadriculaCompacta.NORTE) != 0) {
+                dibujarCasilla(x, anterior[x], pixeles);
+            }
+            if (actual != null && (actual[x] & CuadriculaCompacta.SUR) != 0) {
+                dibujarCasilla(x, actual[x], pixeles);
+            }
+        }
+    }
+
+    /**
+     * Dibuja un renglón que pasa por el interior de las Casillas de una fila
+     * @param actual los pasos de la fila
+     * @param renglon la y-coordenada en px del renglón
+     * @param pixeles donde se dibuja el renglón
+     */
+    public void dibujarInterior(byte[] actual, long renglon, byte[] pixeles) {
+        iniciar(renglon, pixeles);
+        for (int x = 0; x < ancho; x++) {
+            dibujarCasilla(x, actual[x], pixeles);
+        }
+    }
+
+    /**
+     * Llena el renglón de negro, con la marca roja en la esquina
+     */
+    private void iniciar(long renglon, byte[] pixeles) {
+        Arrays.fill(pixeles, NEGRO);
+        if (renglon < marca) {
+            Arrays.fill(pixeles, 0, Math.min(marca, pixeles.length), ROJO);
+        }
+    }
+
+    /**
+     * Dibuja el tramo horizontal del cuadro blanco de una Casilla
+     */
+    private void dibujarCasilla(int x, int pasos, byte[] pixeles) {
+        int inicio = x * (longitudCasilla + borde) + borde;
+        int fin = inicio + longitudCasilla;
+        if ((pasos & CuadriculaCompacta.OESTE) != 0) {
+            inicio -= borde;
+        }
+        if ((pasos & CuadriculaCompacta.ESTE) != 0) {
+            fin += borde;
+        }
+        if (fin - inicio <= 8) {
+            // Con casillas de pocos px es más barato escribir los pixeles que llamar a fill
+            for (int i = inicio; i < fin; i++) {
+                pixeles[i] = BLANCO;
+            }
+        } else {
+            Arrays.fill(pixeles, inicio, fin, BLANCO);
+        }
+    }
+}
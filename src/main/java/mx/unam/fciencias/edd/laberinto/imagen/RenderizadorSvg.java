@@ -0,0 +1,107 @@
+package mx.unam.fciencias.edd.laberinto.imagen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntConsumer;
+import java.util.Arrays;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+
+/**
+ * RenderizadorSvg escribe la imagen de un Laberinto como un SVG con las mismas medidas que el
+ * PNG. Las paredes se recorren una sola vez, fila por fila, y las paredes seguidas sobre una
+ * misma línea se juntan en un solo segmento, así que el tamaño del SVG depende del número de
+ * tramos de pared y no del tamaño en px de la imagen
+ */
+public class RenderizadorSvg {
+
+    private RenderizadorSvg() {
+    }
+
+    /**
+     * Escribe el SVG de un Laberinto con unas medidas, avisando cada que se termina una fila. Las
+     * coordenadas del SVG están en medios px para que el centro de cada pared sea un número entero
+     * @param cuadricula los pasos del Laberinto
+     * @param salida donde se escribe el SVG, no se cierra al terminar
+     * @param medidas las medidas en px de las casillas y las paredes
+     * @param progreso recibe el número de filas escritas, puede ser null
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public static void escribir(CuadriculaCompacta cuadricula, OutputStream salida, MedidasImagen medidas,
+            IntConsumer progreso) throws IOException {
+        int ancho = cuadricula.getAncho();
+        int alto = cuadricula.getAlto();
+        int paso = medidas.getLongitudCasilla() + medidas.getBorde();
+        int borde = medidas.getBorde();
+        long anchoImagen = medidas.getAnchoImagen(ancho);
+        long altoImagen = medidas.getAltoImagen(alto);
+
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 1 << 16);
+        escritor.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        escritor.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + anchoImagen + "\" height=\""
+                + altoImagen + "\" viewBox=\"0 0 " + 2 * anchoImagen + " " + 2 * altoImagen + "\">\n");
+        escritor.write("<rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n");
+        escritor.write("<path fill=\"none\" stroke=\"black\" stroke-linecap=\"square\" stroke-width=\""
+                + 2 * borde + "\" d=\"\n");
+
+        // La fila donde empezó la pared vertical que sigue abierta en cada línea, o -1
+        int[] inicioVertical = new int[ancho + 1];
+        Arrays.fill(inicioVertical, -1);
+        for (int y = 0; y <= alto; y++) {
+            // Paredes horizontales arriba de la fila y
+            int inicio = -1;
+            for (int x = 0; x <= ancho; x++) {
+                boolean pared = x < ancho && (y == 0 || y == alto
+                        || !cuadricula.hayPaso(cuadricula.indice(x, y - 1), CuadriculaCompacta.NORTE));
+                if (pared && inicio < 0) {
+                    inicio = x;
+                } else if (!pared && inicio >= 0) {
+                    segmento(escritor, 'H', coordenada(inicio, paso, borde), coordenada(y, paso, borde),
+                            coordenada(x, paso, borde));
+                    inicio = -1;
+                }
+            }
+            // Paredes verticales a la izquierda de cada Casilla de la fila y
+            for (int x = 0; x <= ancho; x++) {
+                boolean pared = y < alto && (x == 0 || x == ancho
+                        || !cuadricula.hayPaso(cuadricula.indice(x - 1, y), CuadriculaCompacta.ESTE));
+                if (pared && inicioVertical[x] < 0) {
+                    inicioVertical[x] = y;
+                } else if (!pared && inicioVertical[x] >= 0) {
+                    segmento(escritor, 'V', coordenada(x, paso, borde), coordenada(inicioVertical[x], paso, borde),
+                            coordenada(y, paso, borde));
+                    inicioVertical[x] = -1;
+                }
+            }
+            escritor.write('\n');
+            if (progreso != null && y < alto) {
+                progreso.accept(y + 1);
+            }
+        }
+        escritor.write("\"/>\n</svg>\n");
+        escritor.flush();
+    }
+
+    /**
+     * Calcula la coordenada en medios px del centro de la pared de una línea de la cuadrícula
+     */
+    private static long coordenada(int linea, int paso, int borde) {
+        return 2L * linea * paso + borde;
+    }
+
+    /**
+     * Escribe un segmento de pared horizontal (H) o vertical (V)
+     */
+    private static void segmento(Writer escritor, char direccion, long x, long y, long fin) throws IOException {
+        escritor.write('M');
+        escritor.write(Long.toString(x));
+        escritor.write(' ');
+        escritor.write(Long.toString(y));
+        escritor.write(direccion);
+        escritor.write(Long.toString(fin));
+    }
+}
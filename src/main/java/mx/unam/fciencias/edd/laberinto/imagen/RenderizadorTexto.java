@@ -0,0 +1,79 @@
+package mx.unam.fciencias.edd.laberinto.imagen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntConsumer;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+
+/**
+ * RenderizadorTexto escribe la imagen de un Laberinto como texto plano, una fila a la vez.
+ * Las esquinas son <code>+</code>, las paredes horizontales <code>---</code> y las verticales
+ * <code>|</code>. La primera fila del Laberinto queda arriba, igual que en el PNG
+ */
+public class RenderizadorTexto {
+
+    private RenderizadorTexto() {
+    }
+
+    /**
+     * Calcula el número de bytes del texto de un Laberinto sin escribirlo: 2 * alto + 1 renglones
+     * de 4 * ancho + 2 caracteres, incluyendo el salto de línea
+     * @param cuadricula los pasos del Laberinto
+     * @return el número de bytes que escribe {@link #escribir}
+     */
+    public static long longitud(CuadriculaCompacta cuadricula) {
+        return (2L * cuadricula.getAlto() + 1) * (4L * cuadricula.getAncho() + 2);
+    }
+
+    /**
+     * Escribe el texto de un Laberinto, avisando cada que se termina una fila
+     * @param cuadricula los pasos del Laberinto
+     * @param salida donde se escribe el texto, no se cierra al terminar
+     * @param progreso recibe el número de filas escritas, puede ser null
+     * @throws IOException si no se puede escribir en la salida
+     */
+    public static void escribir(CuadriculaCompacta cuadricula, OutputStream salida, IntConsumer progreso)
+            throws IOException {
+        int ancho = cuadricula.getAncho();
+        int alto = cuadricula.getAlto();
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 1 << 16);
+        char[] renglon = new char[4 * ancho + 2];
+        renglon[renglon.length - 1] = '\n';
+        for (int y = 0; y <= alto; y++) {
+            // Las paredes horizontales arriba de la fila y
+            for (int x = 0; x < ancho; x++) {
+                boolean pared = y == 0 || y == alto
+                        || !cuadricula.hayPaso(cuadricula.indice(x, y - 1), CuadriculaCompacta.NORTE);
+                renglon[4 * x] = '+';
+                char c = pared ? '-' : ' ';
+                renglon[4 * x + 1] = c;
+                renglon[4 * x + 2] = c;
+                renglon[4 * x + 3] = c;
+            }
+            renglon[4 * ancho] = '+';
+            escritor.write(renglon);
+            if (y == alto) {
+                break;
+            }
+            // Las paredes verticales de la fila y
+            for (int x = 0; x < ancho; x++) {
+                boolean pared = x == 0 || !cuadricula.hayPaso(cuadricula.indice(x - 1, y), CuadriculaCompacta.ESTE);
+                renglon[4 * x] = pared ? '|' : ' ';
+                renglon[4 * x + 1] = ' ';
+                renglon[4 * x + 2] = ' ';
+                renglon[4 * x + 3] = ' ';
+            }
+            renglon[4 * ancho] = '|';
+            escritor.write(renglon);
+            if (progreso != null) {
+                progreso.accept(y + 1);
+            }
+        }
+        escritor.flush();
+    }
+}
@@ -0,0 +1,42 @@
+package mx.unam.fciencias.edd.laberinto.solucionador;
+
+/**
+ * Los algoritmos de búsqueda de caminos disponibles, con el nombre con el que se piden en
+ * la aplicación
+ */
+public enum Busqueda {
+
+    BFS("bfs", new SolucionadorBFS()),
+    A_ESTRELLA("a-estrella", new SolucionadorAEstrella());
+
+    private final String nombre;
+    private final Solucionador solucionador;
+
+    private Busqueda(String nombre, Solucionador solucionador) {
+        this.nombre = nombre;
+        this.solucionador = solucionador;
+    }
+
+    /**
+     * Busca un algoritmo por su nombre, sin importar mayúsculas
+     * @param nombre el nombre del algoritmo
+     * @return el algoritmo con ese nombre
+     * @throws IllegalArgumentException si no hay un algoritmo con ese nombre
+     */
+    public static Busqueda buscar(String nombre) throws IllegalArgumentException {
+        for (Busqueda busqueda : values()) {
+            if (busqueda.nombre.equalsIgnoreCase(nombre)) {
+                return busqueda;
+            }
+        }
+        throw new IllegalArgumentException("No existe el algoritmo de búsqueda: " + nombre);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public Solucionador getSolucionador() {
+        return solucionador;
+    }
+}
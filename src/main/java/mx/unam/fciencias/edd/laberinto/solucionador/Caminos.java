@@ -0,0 +1,34 @@
+package mx.unam.fciencias.edd.laberinto.solucionador;
+
+/**
+ * Operaciones sobre caminos que comparten los solucionadores
+ */
+final class Caminos {
+
+    private Caminos() {
+    }
+
+    /**
+     * Reconstruye un camino siguiendo los padres desde el fin hasta el inicio
+     * @param espacio el espacio de la búsqueda, donde el inicio es su propio padre
+     * @param inicio el índice de la Casilla de inicio
+     * @param fin el índice de la Casilla a llegar
+     * @return los índices de las Casillas del camino, o un arreglo vacío si no se llegó al fin
+     */
+    static int[] reconstruir(EspacioBusqueda espacio, int inicio, int fin) {
+        if (!espacio.fueDescubierta(fin)) {
+            return new int[0];
+        }
+        int longitud = 1;
+        for (int casilla = fin; casilla != inicio; casilla = espacio.getPadre(casilla)) {
+            longitud++;
+        }
+        int[] camino = new int[longitud];
+        int casilla = fin;
+        for (int i = longitud - 1; i >= 0; i--) {
+            camino[i] = casilla;
+            casilla = espacio.getPadre(casilla);
+        }
+        return camino;
+    }
+}
@@ -0,0 +1,114 @@
+package mx.unam.fciencias.edd.laberinto.solucionador;
+
+import java.util.Arrays;
+
+import mx.unam.fciencias.edd.util.IntCola;
+
+/**
+ * El estado de una búsqueda: el padre de cada Casilla descubierta y los arreglos
+ * auxiliares de los solucionadores. Cada hilo reutiliza su propio espacio, así que varias
+ * búsquedas sobre el mismo Laberinto pueden ejecutarse al mismo tiempo sin tocar la
+ * cuadrícula.
+ *
+ * <p>Para no limpiar los arreglos en cada búsqueda, cada una tiene un sello distinto y una
+ * Casilla está descubierta sólo si tiene el sello de la búsqueda actual.</p>
+ */
+final class EspacioBusqueda {
+
+    /**
+     * Los espacios más grandes que esto se crean para cada búsqueda en lugar de quedarse
+     * en el hilo. Cada hilo que atiende peticiones retiene su espacio y nadie cuenta esa
+     * memoria, así que se acota a 1 MB por hilo, lo que ocupan sus cuatro arreglos
+     */
+    private static final int MAXIMO_REUTILIZABLE = 1 << 16;
+
+    private static final ThreadLocal<EspacioBusqueda> ESPACIOS = ThreadLocal.withInitial(EspacioBusqueda::new);
+
+    private int[] sellos = new int[0];
+    private int[] padres = new int[0];
+    private int[] distancias = new int[0];
+    private IntCola cola = new IntCola(0);
+    private int sello;
+
+    private EspacioBusqueda() {
+    }
+
+    /**
+     * Obtiene un espacio para una nueva búsqueda, sin Casillas descubiertas
+     * @param tamanio el número de Casillas de la cuadrícula
+     * @return el espacio de la búsqueda
+     */
+    static EspacioBusqueda obtener(int tamanio) {
+        EspacioBusqueda espacio = tamanio > MAXIMO_REUTILIZABLE ? new EspacioBusqueda() : ESPACIOS.get();
+        espacio.preparar(tamanio);
+        return espacio;
+    }
+
+    private void preparar(int tamanio) {
+        if (sellos.length < tamanio) {
+            sellos = new int[tamanio];
+            padres = new int[tamanio];
+            distancias = new int[0];
+            cola = new IntCola(0);
+            sello = 0;
+        }
+        sello++;
+        // Cuando el sello da la vuelta se limpian los sellos una sola vez
+        if (sello == 0) {
+            Arrays.fill(sellos, 0);
+            sello = 1;
+        }
+    }
+
+    /**
+     * Nos dice si una Casilla ya se descubrió en esta búsqueda
+     * @param casilla el índice de la Casilla
+     * @return true si ya se descubrió, false en otro caso
+     */
+    boolean fueDescubierta(int casilla) {
+        return sellos[casilla] == sello;
+    }
+
+    /**
+     * Descubre una Casilla, o cambia su padre si ya se había descubierto
+     * @param casilla el índice de la Casilla
+     * @param padre el índice de la Casilla desde la que se llegó
+     */
+    void descubrir(int casilla, int padre) {
+        sellos[casilla] = sello;
+        padres[casilla] = padre;
+    }
+
+    /**
+     * Regresa el padre de una Casilla descubierta
+     * @param casilla el índice de la Casilla
+     * @return el índice del padre
+     */
+    int getPadre(int casilla) {
+        return padres[casilla];
+    }
+
+    /**
+     * Regresa un arreglo para las distancias, del tamaño de la cuadrícula. Sólo son
+     * válidas las distancias de las Casillas descubiertas en esta búsqueda
+     * @return el arreglo de distancias
+     */
+    int[] getDistancias() {
+        if (distancias.length < sellos.length) {
+            distancias = new int[sellos.length];
+        }
+        return distancias;
+    }
+
+    /**
+     * Regresa una cola vacía con capacidad para todas las Casillas de la cuadrícula
+     * @return la cola
+     */
+    IntCola getCola() {
+        if (cola.getCapacidad() < sellos.length) {
+            cola = new IntCola(sellos.length);
+        }
+        cola.limpia();
+        return cola;
+    }
+}
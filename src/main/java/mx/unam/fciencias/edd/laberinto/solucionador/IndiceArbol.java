@@ -0,0 +1,168 @@
+package mx.unam.fciencias.edd.laberinto.solucionador;
+
+import java.util.Arrays;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+import mx.unam.fciencias.edd.util.IntCola;
+
+/**
+ * IndiceArbol responde caminos en un Laberinto perfecto sin hacer búsquedas. Como el
+ * Laberinto es un árbol, el camino entre dos Casillas pasa por su ancestro común más
+ * cercano (LCA) si se cuelga el árbol de la Casilla 0.
+ *
+ * <p>Se construye una sola vez y guarda en arreglos de enteros el padre, la profundidad y
+ * un apuntador de salto de cada Casilla. Los apuntadores de salto permiten subir de
+ * profundidad en O(log n) pasos, como binary lifting, pero usando un solo entero por
+ * Casilla en lugar de log n.</p>
+ */
+public class IndiceArbol implements Solucionador {
+
+    private final CuadriculaCompacta cuadricula;
+    private final int[] padres;
+    private final int[] profundidades;
+    private final int[] saltos;
+
+    /**
+     * Construye el índice de un Laberinto perfecto
+     * @param cuadricula la cuadrícula del Laberinto, que ya no debe cambiar
+     * @throws IllegalArgumentException si el Laberinto no es perfecto
+     */
+    public IndiceArbol(CuadriculaCompacta cuadricula) throws IllegalArgumentException {
+        int tamanio = cuadricula.getTamanio();
+        this.cuadricula = cuadricula;
+        this.padres = new int[tamanio];
+        this.profundidades = new int[tamanio];
+        this.saltos = new int[tamanio];
+        Arrays.fill(padres, -1);
+
+        // Se recorre en amplitud para que cada padre se procese antes que sus hijos
+        IntCola cola = new IntCola(tamanio);
+        int recorridas = 0;
+        padres[0] = 0;
+        saltos[0] = 0;
+        cola.queue(0);
+        while (!cola.esVacio()) {
+            int casilla = cola.dequeue();
+            recorridas++;
+            for (Direccion direccion : Direccion.DIRECCIONES) {
+                if (!cuadricula.hayPaso(casilla, direccion)) {
+                    continue;
+                }
+                int vecino = cuadricula.vecino(casilla, direccion);
+                if (vecino == padres[casilla] && casilla != 0) {
+                    continue;
+                }
+                if (padres[vecino] >= 0) {
+                    throw new IllegalArgumentException("El laberinto tiene ciclos");
+                }
+                padres[vecino] = casilla;
+                profundidades[vecino] = profundidades[casilla] + 1;
+                saltos[vecino] = calcularSalto(casilla);
+                cola.queue(vecino);
+            }
+        }
+        if (recorridas != tamanio) {
+            throw new IllegalArgumentException("El laberinto no es conexo");
+        }
+    }
+
+    /**
+     * Calcula el apuntador de salto de un hijo de una Casilla. Si los dos saltos siguientes
+     * del padre miden lo mismo, el hijo salta sobre ambos; si no, salta sólo al padre
+     */
+    private int calcularSalto(int padre) {
+        int salto = saltos[padre];
+        int saltoDelSalto = saltos[salto];
+        if (profundidades[padre] - profundidades[salto] == profundidades[salto] - profundidades[saltoDelSalto]) {
+            return saltoDelSalto;
+        }
+        return padre;
+    }
+
+    /**
+     * Sube desde una Casilla hasta su ancestro con cierta profundidad
+     */
+    private int subir(int casilla, int profundidad) {
+        while (profundidades[casilla] > profundidad) {
+            if (profundidades[saltos[casilla]] >= profundidad) {
+                casilla = saltos[casilla];
+            } else {
+                casilla = padres[casilla];
+            }
+        }
+        return casilla;
+    }
+
+    /**
+     * Encuentra el ancestro común más cercano de dos Casillas, en O(log n)
+     * @param a el índice de una Casilla
+     * @param b el índice de otra Casilla
+     * @return el índice del ancestro común más cercano
+     */
+    public int ancestroComun(int a, int b) {
+        if (profundidades[a] > profundidades[b]) {
+            a = subir(a, profundidades[b]);
+        } else {
+            b = subir(b, profundidades[a]);
+        }
+        while (a != b) {
+            if (saltos[a] != saltos[b]) {
+                a = saltos[a];
+                b = saltos[b];
+            } else {
+                a = padres[a];
+                b = padres[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Calcula la distancia entre dos Casillas, es decir, el número de pasos del camino
+     * @param a el índice de una Casilla
+     * @param b el índice de otra Casilla
+     * @return el número de pasos entre las Casillas
+     */
+    public int distancia(int a, int b) {
+        return profundidades[a] + profundidades[b] - 2 * profundidades[ancestroComun(a, b)];
+    }
+
+    /**
+     * Obtiene el camino entre dos Casillas en O(log n) más la longitud del camino
+     * @param cuadricula la cuadrícula con la que se construyó el índice
+     * @param inicio el índice de la Casilla de inicio
+     * @param fin el índice de la Casilla a llegar
+     * @return los índices de las Casillas del camino, desde el inicio hasta el fin
+     */
+    @Override
+    public int[] resolver(CuadriculaCompacta cuadricula, int inicio, int fin) {
+        if (cuadricula != this.cuadricula) {
+            throw new IllegalArgumentException("El índice es de otra cuadrícula");
+        }
+        int ancestro = ancestroComun(inicio, fin);
+        int subida = profundidades[inicio] - profundidades[ancestro];
+        int[] camino = new int[subida + profundidades[fin] - profundidades[ancestro] + 1];
+
+        // Del inicio se sube hasta el ancestro, y del fin también pero llenando en reversa
+        int casilla = inicio;
+        for (int i = 0; i <= subida; i++) {
+            camino[i] = casilla;
+            casilla = padres[casilla];
+        }
+        casilla = fin;
+        for (int i = camino.length - 1; i > subida; i--) {
+            camino[i] = casilla;
+            casilla = padres[casilla];
+        }
+        return camino;
+    }
+
+    /**
+     * Estima los bytes que ocupa el índice en memoria
+     * @return el número aproximado de bytes
+     */
+    public long getMemoria() {
+        return 12L * padres.length + 64L;
+    }
+}
@@ -0,0 +1,80 @@
+package mx.unam.fciencias.edd.laberinto.solucionador;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Montículo binario de mínimos de índices de Casillas con prioridad entera. Cada entrada se
+ * guarda en un long, con la prioridad en los 32 bits altos, para no crear objetos
+ */
+class MonticuloMinimo {
+
+    private long[] entradas = new long[16];
+    private int tamanio;
+
+    /**
+     * Agrega una Casilla con una prioridad
+     * @param prioridad la prioridad, no negativa
+     * @param casilla el índice de la Casilla
+     */
+    void agregar(int prioridad, int casilla) {
+        if (tamanio == entradas.length) {
+            entradas = Arrays.copyOf(entradas, tamanio * 2);
+        }
+        long entrada = ((long) prioridad << 32) | casilla;
+        int i = tamanio++;
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (entradas[padre] <= entrada) {
+                break;
+            }
+            entradas[i] = entradas[padre];
+            i = padre;
+        }
+        entradas[i] = entrada;
+    }
+
+    /**
+     * Regresa la menor prioridad del montículo
+     * @return la menor prioridad
+     */
+    long prioridadMinima() {
+        if (tamanio == 0) {
+            throw new NoSuchElementException("El montículo es vacío");
+        }
+        return entradas[0] >>> 32;
+    }
+
+    /**
+     * Elimina la Casilla con menor prioridad
+     * @return el índice de la Casilla
+     */
+    int eliminarMinimo() {
+        if (tamanio == 0) {
+            throw new NoSuchElementException("El montículo es vacío");
+        }
+        int casilla = (int) entradas[0];
+        long ultima = entradas[--tamanio];
+        int i = 0;
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamanio) {
+                break;
+            }
+            if (hijo + 1 < tamanio && entradas[hijo + 1] < entradas[hijo]) {
+                hijo++;
+            }
+            if (ultima <= entradas[hijo]) {
+                break;
+            }
+            entradas[i] = entradas[hijo];
+            i = hijo;
+        }
+        entradas[i] = ultima;
+        return casilla;
+    }
+
+    boolean esVacio() {
+        return tamanio == 0;
+    }
+}
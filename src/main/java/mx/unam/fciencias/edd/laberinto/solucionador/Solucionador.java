@@ -0,0 +1,21 @@
+package mx.unam.fciencias.edd.laberinto.solucionador;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+
+/**
+ * Un Solucionador encuentra el camino más corto entre dos Casillas de un Laberinto, sin
+ * modificar la cuadrícula. El estado de cada búsqueda es propio del hilo que la hace, por lo
+ * que se pueden resolver varios caminos sobre la misma cuadrícula al mismo tiempo
+ */
+public interface Solucionador {
+
+    /**
+     * Encuentra el camino más corto entre dos Casillas
+     * @param cuadricula la cuadrícula del Laberinto
+     * @param inicio el índice de la Casilla de inicio
+     * @param fin el índice de la Casilla a llegar
+     * @return los índices de las Casillas del camino, desde el inicio hasta el fin, o un
+     *         arreglo vacío si no hay camino
+     */
+    public int[] resolver(CuadriculaCompacta cuadricula, int inicio, int fin);
+}
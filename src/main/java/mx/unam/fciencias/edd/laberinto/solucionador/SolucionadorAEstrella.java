@@ -0,0 +1,53 @@
+package mx.unam.fciencias.edd.laberinto.solucionador;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+
+/**
+ * Encuentra el camino más corto con el algoritmo A*, usando la distancia Manhattan al fin
+ * como heurística. Explora primero las Casillas que se acercan al fin, así que suele
+ * explorar menos que BFS cuando el camino es casi recto
+ */
+public class SolucionadorAEstrella implements Solucionador {
+
+    @Override
+    public int[] resolver(CuadriculaCompacta cuadricula, int inicio, int fin) {
+        EspacioBusqueda espacio = EspacioBusqueda.obtener(cuadricula.getTamanio());
+        int[] distancias = espacio.getDistancias();
+        int xFin = cuadricula.x(fin);
+        int yFin = cuadricula.y(fin);
+
+        MonticuloMinimo abiertos = new MonticuloMinimo();
+        espacio.descubrir(inicio, inicio);
+        distancias[inicio] = 0;
+        abiertos.agregar(manhattan(cuadricula, inicio, xFin, yFin), inicio);
+        while (!abiertos.esVacio()) {
+            long prioridad = abiertos.prioridadMinima();
+            int casilla = abiertos.eliminarMinimo();
+            if (casilla == fin) {
+                break;
+            }
+            // Una Casilla puede estar varias veces; sólo vale la de menor distancia
+            if (prioridad > distancias[casilla] + manhattan(cuadricula, casilla, xFin, yFin)) {
+                continue;
+            }
+            for (Direccion direccion : Direccion.DIRECCIONES) {
+                if (!cuadricula.hayPaso(casilla, direccion)) {
+                    continue;
+                }
+                int vecino = cuadricula.vecino(casilla, direccion);
+                int distancia = distancias[casilla] + 1;
+                if (!espacio.fueDescubierta(vecino) || distancia < distancias[vecino]) {
+                    espacio.descubrir(vecino, casilla);
+                    distancias[vecino] = distancia;
+                    abiertos.agregar(distancia + manhattan(cuadricula, vecino, xFin, yFin), vecino);
+                }
+            }
+        }
+        return Caminos.reconstruir(espacio, inicio, fin);
+    }
+
+    private static int manhattan(CuadriculaCompacta cuadricula, int casilla, int xFin, int yFin) {
+        return Math.abs(cuadricula.x(casilla) - xFin) + Math.abs(cuadricula.y(casilla) - yFin);
+    }
+}
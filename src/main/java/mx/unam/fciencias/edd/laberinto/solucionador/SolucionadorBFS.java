@@ -0,0 +1,37 @@
+package mx.unam.fciencias.edd.laberinto.solucionador;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+import mx.unam.fciencias.edd.util.IntCola;
+
+/**
+ * Encuentra el camino más corto con una búsqueda en amplitud (BFS). El padre de cada
+ * Casilla descubierta se guarda en el EspacioBusqueda del hilo, así que el costo de una
+ * búsqueda sólo depende de las Casillas que explora
+ */
+public class SolucionadorBFS implements Solucionador {
+
+    @Override
+    public int[] resolver(CuadriculaCompacta cuadricula, int inicio, int fin) {
+        EspacioBusqueda espacio = EspacioBusqueda.obtener(cuadricula.getTamanio());
+        // Cada Casilla se forma a lo más una vez, así que la cola nunca tiene que crecer
+        IntCola cola = espacio.getCola();
+
+        espacio.descubrir(inicio, inicio);
+        cola.queue(inicio);
+        while (!cola.esVacio() && !espacio.fueDescubierta(fin)) {
+            int casilla = cola.dequeue();
+            for (Direccion direccion : Direccion.DIRECCIONES) {
+                if (!cuadricula.hayPaso(casilla, direccion)) {
+                    continue;
+                }
+                int vecino = cuadricula.vecino(casilla, direccion);
+                if (!espacio.fueDescubierta(vecino)) {
+                    espacio.descubrir(vecino, casilla);
+                    cola.queue(vecino);
+                }
+            }
+        }
+        return Caminos.reconstruir(espacio, inicio, fin);
+    }
+}
@@ -2,6 +2,7 @@ package mx.unam.fciencias.edd.util;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 /**
  * <p> Clase concreta para modelar la estructura de datos Cola</p>
@@ -217,6 +218,17 @@ public class Cola<T> implements Coleccionable<T> {
         return new IteradorCola();
     }
 
+    /**
+     * Regresa un Spliterator sobre los elementos de la Cola, del inicio al rabo,
+     * con tamaño exacto y divisiones balanceadas para procesarlos en paralelo.
+     * @return el Spliterator de los elementos.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new SpliteratorNodos<Nodo, T>(inicio, elementos, n -> n.siguiente, n -> n.elemento,
+                Spliterator.NONNULL);
+    }
+
     @Override
     public String toString() {
         String s = "[";
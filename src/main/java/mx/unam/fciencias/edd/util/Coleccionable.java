@@ -1,6 +1,8 @@
 package mx.unam.fciencias.edd.util;
 
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>Interface para colecciones, con operaciones para agregar y eliminar
@@ -51,4 +53,22 @@ public interface Coleccionable<T> extends Iterable<T> {
      * @return el número de elementos en la colección.
      */
     public int getTamanio();
+
+    /**
+     * Regresa un Stream secuencial sobre los elementos de la colección, en el
+     * orden de su iterador.
+     * @return el Stream de los elementos.
+     */
+    public default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Regresa un Stream que puede procesar los elementos de la colección en
+     * paralelo, en el pool común de fork-join.
+     * @return el Stream paralelo de los elementos.
+     */
+    public default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
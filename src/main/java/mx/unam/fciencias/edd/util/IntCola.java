@@ -0,0 +1,142 @@
+package mx.unam.fciencias.edd.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase concreta para modelar una Cola de enteros primitivos.</p>
+ * <p>Tiene las mismas operaciones que {@link Cola}, pero guarda los elementos en
+ * un arreglo circular de <code>int</code> que crece al doble cuando se llena, así
+ * que formar un elemento no crea ningún objeto. Sirve para guardar índices de
+ * Casillas en los recorridos en amplitud.</p>
+ */
+public class IntCola {
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private int[] elementos;
+    /* Posición del inicio de la cola en el arreglo */
+    private int inicio;
+    /* Tamaño de la cola */
+    private int tamanio;
+
+    /**
+     * Constructor por omisión de la clase.
+     */
+    public IntCola() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Constructor que recibe el número de elementos que caben en la cola
+     * antes de que tenga que crecer.
+     * @param capacidad la capacidad inicial.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public IntCola(int capacidad) throws IllegalArgumentException {
+        if (capacidad < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        elementos = new int[Math.max(capacidad, 1)];
+    }
+
+    /**
+     * Agrega un elemento en el rabo de la Cola.
+     * @param elemento el elemento a agregar.
+     */
+    public void queue(int elemento) {
+        if (tamanio == elementos.length) {
+            crecer();
+        }
+        int rabo = inicio + tamanio;
+        if (rabo >= elementos.length) {
+            rabo -= elementos.length;
+        }
+        elementos[rabo] = elemento;
+        tamanio++;
+    }
+
+    /**
+     * Elimina el elemento del inicio de la Cola y lo regresa.
+     * @throws NoSuchElementException si la cola es vacía.
+     * @return el elemento en el inicio de la Cola.
+     */
+    public int dequeue() throws NoSuchElementException {
+        if (tamanio == 0) {
+            throw new NoSuchElementException("No hay elementos");
+        }
+        int elemento = elementos[inicio];
+        if (++inicio == elementos.length) {
+            inicio = 0;
+        }
+        tamanio--;
+        return elemento;
+    }
+
+    /**
+     * Nos permite ver el elemento en el inicio de la Cola.
+     * @throws NoSuchElementException si la cola es vacía.
+     * @return el elemento en el inicio de la Cola.
+     */
+    public int peek() throws NoSuchElementException {
+        if (tamanio == 0) {
+            throw new NoSuchElementException("No hay elementos");
+        }
+        return elementos[inicio];
+    }
+
+    /**
+     * Elimina todos los elementos de la Cola, sin liberar su arreglo.
+     */
+    public void limpia() {
+        inicio = 0;
+        tamanio = 0;
+    }
+
+    /**
+     * Nos dice si la Cola está vacía.
+     * @return <tt>true</tt> si la Cola no tiene elementos,
+     * <tt>false</tt> en otro caso.
+     */
+    public boolean esVacio() {
+        return tamanio == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la Cola.
+     * @return el número de elementos en la Cola.
+     */
+    public int getTamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Regresa el número de elementos que caben en la Cola sin que tenga que crecer.
+     * @return la capacidad de la Cola.
+     */
+    public int getCapacidad() {
+        return elementos.length;
+    }
+
+    /* Copia los elementos a un arreglo del doble de tamaño, con el inicio en la posición 0 */
+    private void crecer() {
+        int[] nuevos = new int[IntPila.crecer(elementos.length)];
+        int primeros = Math.min(tamanio, elementos.length - inicio);
+        System.arraycopy(elementos, inicio, nuevos, 0, primeros);
+        System.arraycopy(elementos, 0, nuevos, primeros, tamanio - primeros);
+        elementos = nuevos;
+        inicio = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for (int i = 0; i < tamanio; i++) {
+            int posicion = inicio + i;
+            s.append(elementos[posicion < elementos.length ? posicion : posicion - elementos.length]);
+            if (i + 1 < tamanio) {
+                s.append(',');
+            }
+        }
+        return s.append(']').toString();
+    }
+}
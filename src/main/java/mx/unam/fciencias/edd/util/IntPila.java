@@ -0,0 +1,121 @@
+package mx.unam.fciencias.edd.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase concreta para modelar una Pila de enteros primitivos.</p>
+ * <p>Tiene las mismas operaciones que {@link Pila}, pero guarda los elementos en
+ * un arreglo de <code>int</code> que crece al doble cuando se llena, así que
+ * agregar un elemento no crea ningún objeto. Sirve para guardar índices de
+ * Casillas en los recorridos.</p>
+ */
+public class IntPila {
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private int[] elementos;
+    private int tope;
+
+    /**
+     * Constructor por omisión de la clase.
+     */
+    public IntPila() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Constructor que recibe el número de elementos que caben en la pila
+     * antes de que tenga que crecer.
+     * @param capacidad la capacidad inicial.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public IntPila(int capacidad) throws IllegalArgumentException {
+        if (capacidad < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        elementos = new int[Math.max(capacidad, 1)];
+    }
+
+    /**
+     * Agrega un elemento al tope de la pila.
+     * @param elemento el elemento a agregar.
+     */
+    public void push(int elemento) {
+        if (tope == elementos.length) {
+            elementos = Arrays.copyOf(elementos, crecer(elementos.length));
+        }
+        elementos[tope++] = elemento;
+    }
+
+    /**
+     * Elimina el elemento del tope de la pila y lo regresa.
+     * @throws NoSuchElementException si la pila es vacía.
+     * @return el elemento en el tope de la pila.
+     */
+    public int pop() throws NoSuchElementException {
+        if (tope == 0) {
+            throw new NoSuchElementException("No hay elementos");
+        }
+        return elementos[--tope];
+    }
+
+    /**
+     * Nos permite ver el elemento en el tope de la pila.
+     * @throws NoSuchElementException si la pila es vacía.
+     * @return el elemento en el tope de la pila.
+     */
+    public int peek() throws NoSuchElementException {
+        if (tope == 0) {
+            throw new NoSuchElementException("No hay elementos");
+        }
+        return elementos[tope - 1];
+    }
+
+    /**
+     * Elimina todos los elementos de la pila, sin liberar su arreglo.
+     */
+    public void limpia() {
+        tope = 0;
+    }
+
+    /**
+     * Nos dice si la pila está vacía.
+     * @return <tt>true</tt> si la pila no tiene elementos,
+     * <tt>false</tt> en otro caso.
+     */
+    public boolean esVacio() {
+        return tope == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la pila.
+     * @return el número de elementos en la pila.
+     */
+    public int getTamanio() {
+        return tope;
+    }
+
+    /**
+     * Calcula la nueva capacidad de un arreglo lleno: el doble, sin pasar del
+     * máximo que puede tener un arreglo.
+     */
+    static int crecer(int capacidad) {
+        if (capacidad >= Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("La estructura no puede crecer más");
+        }
+        return (int) Math.min((long) capacidad * 2, Integer.MAX_VALUE - 8);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for (int i = tope - 1; i >= 0; i--) {
+            s.append(elementos[i]);
+            if (i > 0) {
+                s.append(',');
+            }
+        }
+        return s.append(']').toString();
+    }
+}
@@ -1,7 +1,11 @@
 package mx.unam.fciencias.edd.util;
 
 
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * <p>
@@ -16,6 +20,12 @@ import java.util.Iterator;
  */
 public class Lista<T> implements Listable<T>, Iterable<T> {
 
+    /**
+     * Las sublistas de a lo más este número de elementos se ordenan sin
+     * dividirlas más en {@link #ordenarParalelo(Comparator, ForkJoinPool)}
+     */
+    public static final int UMBRAL_PARALELO = 1 << 13;
+
     /* Clase interna para construir la estructura */
     private class Nodo {
         /* Referencias a los nodos anterior y siguiente */
@@ -326,7 +336,18 @@ public class Lista<T> implements Listable<T>, Iterable<T> {
     }
 
     /**
-     * Método que devuelve una copia de la lista.
+     * Regresa un Spliterator sobre los elementos de la lista, en orden,
+     * con tamaño exacto y divisiones balanceadas para procesarlos en paralelo.
+     *
+     * @return el Spliterator de los elementos.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new SpliteratorNodos<Nodo, T>(cabeza, longitud, n -> n.siguiente, n -> n.elemento, 0);
+    }
+
+    /**
+     * Método que devuelve una copia ordenada de la lista.
      * 
      * @param <T> Debe ser un tipo que extienda Comparable, para poder distinguir el
      *            orden de los elementos en la lista.
@@ -334,59 +355,179 @@ public class Lista<T> implements Listable<T>, Iterable<T> {
      * @return copia de la lista ordenada.
      */
     public static <T extends Comparable<T>> Lista<T> mergesort(Lista<T> l) {
-        if (l.longitud < 2)
-            return l;
-        Lista<T> l1 = new Lista<T>();
-        Lista<T> l2 = new Lista<T>();
-        int contador = 0;
-        for (T elemento : l) {
-            if (contador++ < l.longitud / 2) {
-                l1.agregar(elemento);
-            } else {
-                l2.agregar(elemento);
+        Lista<T> copia = l.copia();
+        copia.ordenar(Comparator.naturalOrder());
+        return copia;
+    }
+
+    /**
+     * Método que ordena la lista con merge sort de abajo hacia arriba: mezcla
+     * sublistas de longitud 1, 2, 4... volviendo a enlazar los nodos
+     * existentes, así que no crea ningún objeto. Es estable: los elementos
+     * iguales conservan su orden.
+     * 
+     * @param comparador el orden de los elementos.
+     */
+    public void ordenar(Comparator<? super T> comparador) {
+        if (longitud < 2) {
+            return;
+        }
+        cabeza = ordenarCadena(cabeza, comparador);
+        enlazarAnteriores();
+    }
+
+    /**
+     * Método que ordena la lista en paralelo en el pool común de fork-join.
+     * 
+     * @param comparador el orden de los elementos.
+     * @see #ordenarParalelo(Comparator, ForkJoinPool)
+     */
+    public void ordenarParalelo(Comparator<? super T> comparador) {
+        ordenarParalelo(comparador, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Método que ordena la lista en paralelo: la divide en mitades hasta que
+     * tienen a lo más {@link #UMBRAL_PARALELO} elementos, ordena cada una con
+     * {@link #ordenar(Comparator)} en el pool y las mezcla volviendo a enlazar
+     * los nodos. Sólo crea una tarea por sublista. La lista no debe
+     * modificarse mientras se ordena.
+     * 
+     * @param comparador el orden de los elementos.
+     * @param pool       el pool donde se ordenan las sublistas.
+     */
+    public void ordenarParalelo(Comparator<? super T> comparador, ForkJoinPool pool) {
+        if (longitud <= UMBRAL_PARALELO) {
+            ordenar(comparador);
+            return;
+        }
+        cabeza = pool.invoke(new OrdenamientoParalelo(cabeza, longitud, comparador));
+        enlazarAnteriores();
+    }
+
+    /* Tarea que ordena una cadena de nodos y regresa su nueva cabeza */
+    private class OrdenamientoParalelo extends RecursiveTask<Nodo> {
+        private static final long serialVersionUID = -8647143164896999851L;
+
+        private final Nodo inicio;
+        private final int elementos;
+        private final Comparator<? super T> comparador;
+
+        public OrdenamientoParalelo(Nodo inicio, int elementos, Comparator<? super T> comparador) {
+            this.inicio = inicio;
+            this.elementos = elementos;
+            this.comparador = comparador;
+        }
+
+        @Override
+        protected Nodo compute() {
+            if (elementos <= UMBRAL_PARALELO) {
+                return ordenarCadena(inicio, comparador);
             }
+            int mitad = elementos / 2;
+            Nodo segunda = cortar(inicio, mitad);
+            OrdenamientoParalelo derecha = new OrdenamientoParalelo(segunda, elementos - mitad, comparador);
+            derecha.fork();
+            Nodo izquierda = new OrdenamientoParalelo(inicio, mitad, comparador).compute();
+            return mezclar(izquierda, derecha.join(), comparador);
         }
-        return merge(mergesort(l1), mergesort(l2));
     }
 
     /**
+     * Ordena una cadena de nodos de abajo hacia arriba, usando sólo las
+     * referencias siguiente. Los nodos se toman uno por uno y las sublistas
+     * ordenadas pendientes se mezclan en cuanto hay dos de la misma longitud,
+     * como al sumar uno a un contador binario: así cada mezcla se hace
+     * sobre nodos que se acaban de recorrer y todavía están en la caché. Las
+     * sublistas pendientes se enlazan por la referencia anterior de su
+     * cabeza, de la más reciente a la más vieja
      * 
-     * @param <T> Debe ser un tipo que extienda Comparable, para poder distinguir el
-     *            orden de los elementos en la lista.
-     * @param l1  Una lista de elementos comparables
-     * @param l2  Una lista de elementos comparables
-     * @return Una lista ordenada
+     * @return la nueva cabeza de la cadena, cuyo último nodo apunta a null
      */
-    private static <T extends Comparable<T>> Lista<T> merge(Lista<T> l1, Lista<T> l2) {
-        Lista<T> l = new Lista<T>();
-        Lista<T>.Nodo aux1 = l1.cabeza;
-        Lista<T>.Nodo aux2 = l2.cabeza;
-
-        // Se recorren los nodos de las listas
-        while (aux1 != null && aux2 != null) {
-            if (aux1.elemento.compareTo(aux2.elemento) <= 0) {
-                l.agregar(aux1.elemento);
-                aux1 = aux1.siguiente;
-            } else {
-                l.agregar(aux2.elemento);
-                aux2 = aux2.siguiente;
+    private Nodo ordenarCadena(Nodo inicio, Comparator<? super T> comparador) {
+        Nodo pendientes = null;
+        long contador = 0;
+        Nodo nodo = inicio;
+        while (nodo != null) {
+            Nodo sublista = nodo;
+            nodo = nodo.siguiente;
+            sublista.siguiente = null;
+            // Cada bit encendido al final del contador es una sublista pendiente de la misma longitud
+            for (long bits = contador; (bits & 1) != 0; bits >>= 1) {
+                Nodo anterior = pendientes;
+                pendientes = anterior.anterior;
+                sublista = mezclar(anterior, sublista, comparador);
             }
+            sublista.anterior = pendientes;
+            pendientes = sublista;
+            contador++;
+        }
+        if (pendientes == null) {
+            return null;
+        }
+        Nodo sublista = pendientes;
+        pendientes = sublista.anterior;
+        while (pendientes != null) {
+            Nodo anterior = pendientes;
+            pendientes = anterior.anterior;
+            sublista = mezclar(anterior, sublista, comparador);
         }
+        return sublista;
+    }
 
-        // Se valida lo sobrante de cada lista, en caso de que exista
-        while (aux1 != null) {
-            T elemento = aux1.elemento;
-            l.agregar(elemento);
-            aux1 = aux1.siguiente;
+    /**
+     * Separa los primeros elementos de una cadena de nodos
+     * 
+     * @return el primer nodo después de los separados, o null si no hay
+     */
+    private Nodo cortar(Nodo inicio, int elementos) {
+        Nodo ultimo = inicio;
+        for (int i = 1; i < elementos; i++) {
+            ultimo = ultimo.siguiente;
+        }
+        Nodo resto = ultimo.siguiente;
+        ultimo.siguiente = null;
+        return resto;
+    }
 
+    /**
+     * Mezcla dos cadenas ordenadas, tomando de la primera cuando los elementos
+     * son iguales
+     * 
+     * @return la cabeza de la cadena mezclada
+     */
+    private Nodo mezclar(Nodo a, Nodo b, Comparator<? super T> comparador) {
+        Nodo inicio;
+        if (comparador.compare(b.elemento, a.elemento) < 0) {
+            inicio = b;
+            b = b.siguiente;
+        } else {
+            inicio = a;
+            a = a.siguiente;
         }
-        while (aux2 != null) {
-            T elemento = aux2.elemento;
-            l.agregar(elemento);
-            aux2 = aux2.siguiente;
+        Nodo rabo = inicio;
+        while (a != null && b != null) {
+            if (comparador.compare(b.elemento, a.elemento) < 0) {
+                rabo.siguiente = b;
+                b = b.siguiente;
+            } else {
+                rabo.siguiente = a;
+                a = a.siguiente;
+            }
+            rabo = rabo.siguiente;
         }
+        rabo.siguiente = a != null ? a : b;
+        return inicio;
+    }
 
-        return l;
+    /* Vuelve a enlazar las referencias anterior y la cola después de ordenar */
+    private void enlazarAnteriores() {
+        Nodo anterior = null;
+        for (Nodo nodo = cabeza; nodo != null; nodo = nodo.siguiente) {
+            nodo.anterior = anterior;
+            anterior = nodo;
+        }
+        cola = anterior;
     }
 
     @Override
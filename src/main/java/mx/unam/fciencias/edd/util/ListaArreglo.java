@@ -0,0 +1,274 @@
+package mx.unam.fciencias.edd.util;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * <p>
+ * Clase concreta para modelar una Lista sobre un arreglo
+ * </p>
+ * <p>
+ * Los elementos se guardan seguidos en un arreglo que crece al doble cuando se
+ * llena, así que obtener un elemento por su posición es O(1) y recorrer la lista
+ * no salta por la memoria como los nodos de {@link Lista}. Eliminar un elemento
+ * también es O(1) una vez que se conoce su posición: el último elemento ocupa su
+ * lugar, así que las eliminaciones no conservan el orden.
+ * </p>
+ */
+public class ListaArreglo<T> implements Listable<T> {
+
+    private static final int CAPACIDAD_INICIAL = 8;
+
+    private class IteradorListaArreglo implements Iterator<T> {
+        /* La posición del siguiente elemento */
+        private int siguiente;
+        /* Las modificaciones que tenía la lista al crear el iterador */
+        private final int esperadas = modificaciones;
+
+        @Override
+        public boolean hasNext() {
+            return siguiente < longitud;
+        }
+
+        @Override
+        public T next() {
+            if (esperadas != modificaciones) {
+                throw new ConcurrentModificationException();
+            }
+            if (siguiente >= longitud) {
+                throw new NoSuchElementException();
+            }
+            return elementos[siguiente++];
+        }
+    }
+
+    /* Atributos de la lista */
+    private T[] elementos;
+    private int longitud;
+    private int modificaciones;
+
+    /**
+     * Constructor por omisión de la clase.
+     */
+    public ListaArreglo() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Constructor que recibe el número de elementos que caben en la lista antes
+     * de que tenga que crecer.
+     * 
+     * @param capacidad la capacidad inicial.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    @SuppressWarnings("unchecked")
+    public ListaArreglo(int capacidad) throws IllegalArgumentException {
+        if (capacidad < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        elementos = (T[]) new Object[Math.max(capacidad, 1)];
+    }
+
+    /**
+     * Método que nos dice si las lista está vacía.
+     * 
+     * @return <code>true</code> si el conjunto está vacío, <code>false</code> en
+     *         otro caso.
+     */
+    @Override
+    public boolean esVacia() {
+        return longitud == 0;
+    }
+
+    /**
+     * Método para eliminar todos los elementos de una lista, sin liberar su
+     * arreglo
+     */
+    @Override
+    public void vaciar() {
+        Arrays.fill(elementos, 0, longitud, null);
+        longitud = 0;
+        modificaciones++;
+    }
+
+    /**
+     * Método para obtener el tamaño de la lista
+     * 
+     * @return tamanio Número de elementos de la lista.
+     **/
+    @Override
+    public int longitud() {
+        return longitud;
+    }
+
+    /**
+     * Método para agregar un elemento al final de la lista.
+     * 
+     * @param elemento Objeto que se agregará a la lista.
+     */
+    @Override
+    public void agregar(T elemento) {
+        if (longitud == elementos.length) {
+            elementos = Arrays.copyOf(elementos, IntPila.crecer(elementos.length));
+        }
+        elementos[longitud++] = elemento;
+        modificaciones++;
+    }
+
+    /**
+     * Método para verificar si un elemento pertenece a la lista.
+     * 
+     * @param elemento Objeto que se va a buscar en la lista.
+     * @return <code>true</code> si el elemento esta en el lista y false en otro
+     *         caso.
+     */
+    @Override
+    public boolean contiene(T elemento) {
+        return indiceDe(elemento) >= 0;
+    }
+
+    /**
+     * Método para eliminar la primera aparición de un elemento de la lista. El
+     * último elemento de la lista ocupa su lugar.
+     * 
+     * @param elemento Objeto que se eliminara de la lista.
+     */
+    @Override
+    public void eliminar(T elemento) {
+        int indice = indiceDe(elemento);
+        if (indice >= 0) {
+            eliminarEn(indice);
+        }
+    }
+
+    /**
+     * Método para eliminar el elemento en una posición de la lista en O(1). El
+     * último elemento de la lista ocupa su lugar.
+     * 
+     * @param i La posición del elemento a eliminar.
+     * @return el elemento eliminado.
+     * @throws IndexOutOfBoundsException Si el índice es < 0 o >= longitud()
+     */
+    public T eliminarEn(int i) throws IndexOutOfBoundsException {
+        if (i < 0 || i >= longitud) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        T elemento = elementos[i];
+        elementos[i] = elementos[--longitud];
+        elementos[longitud] = null;
+        modificaciones++;
+        return elemento;
+    }
+
+    /**
+     * Método que devuelve la posición en la lista que tiene la primera aparición
+     * del <code> elemento</code>.
+     * 
+     * @param elemento El elemnto del cuál queremos saber su posición.
+     * @return i la posición del elemento en la lista, -1, si no se encuentra en
+     *         ésta.
+     */
+    @Override
+    public int indiceDe(T elemento) {
+        if (elemento == null) {
+            return -1;
+        }
+        for (int i = 0; i < longitud; i++) {
+            if (elemento.equals(elementos[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Método que regresa el elemento en una posición de la lista en O(1)
+     * 
+     * @param i La posición cuyo elemento deseamos conocer.
+     * @return <code> elemento </code> El elemento en esa posición.
+     * @throws IndexOutOfBoundsException Si el índice es < 0 o >= longitud()
+     */
+    @Override
+    public T getElemento(int i) throws IndexOutOfBoundsException {
+        if (i < 0 || i >= longitud) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return elementos[i];
+    }
+
+    /**
+     * Método que cambia el elemento en una posición de la lista
+     * 
+     * @param i        La posición del elemento.
+     * @param elemento El nuevo elemento.
+     * @return el elemento que estaba en esa posición.
+     * @throws IndexOutOfBoundsException Si el índice es < 0 o >= longitud()
+     */
+    public T setElemento(int i, T elemento) throws IndexOutOfBoundsException {
+        T anterior = getElemento(i);
+        elementos[i] = elemento;
+        return anterior;
+    }
+
+    /**
+     * Método que nos dice si una lista es igual que otra: si tiene los mismos
+     * elementos en el mismo orden.
+     * 
+     * @param o objeto a comparar con la lista.
+     * @return <code>true</code> si son iguales, <code>false</code> en otro caso.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ListaArreglo<?>)) {
+            return false;
+        }
+        ListaArreglo<?> lista = (ListaArreglo<?>) o;
+        return lista.longitud == longitud && Arrays.equals(elementos, 0, longitud, lista.elementos, 0, longitud);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < longitud; i++) {
+            hash = 31 * hash + (elementos[i] == null ? 0 : elementos[i].hashCode());
+        }
+        return hash;
+    }
+
+    /**
+     * Método que devuelve un iterador sobre la lista
+     * 
+     * @return java.util.Iterador -- iterador sobre la lista
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new IteradorListaArreglo();
+    }
+
+    /**
+     * Método que devuelve un Spliterator sobre los elementos de la lista, en
+     * orden, que se divide a la mitad del arreglo
+     * 
+     * @return el Spliterator de los elementos.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(elementos, 0, longitud, Spliterator.ORDERED);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for (int i = 0; i < longitud; i++) {
+            s.append(elementos[i]);
+            if (i + 1 < longitud) {
+                s.append(',');
+            }
+        }
+        return s.append(']').toString();
+    }
+}
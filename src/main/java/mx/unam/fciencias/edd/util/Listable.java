@@ -1,13 +1,32 @@
 package mx.unam.fciencias.edd.util;
 
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p> Interfaz para listas </p> <p>Esta clase contiene las
  * operaciones elementales que debe tener el TAD Lista </p>
+ * <p>Hay dos implementaciones: {@link Lista}, doblemente ligada, y
+ * {@link ListaArreglo}, sobre un arreglo con acceso por posición en O(1).
+ * El código que sólo necesita estas operaciones puede recibir la lista
+ * que le convenga, o crearla con {@link #crear(boolean)}.</p>
  * @author Alejandro Hernández Mora <alejandrohmora@ciencias.unam.mx>
  * @version 1.0
  */
-public interface Listable<T> {
+public interface Listable<T> extends Iterable<T> {
+
+    /**
+     * Método para crear una lista vacía.
+     * @param <T> Tipo de los elementos de la lista.
+     * @param accesoAleatorio si la lista necesita obtener y eliminar
+     * elementos por su posición.
+     * @return una {@link ListaArreglo} si se pide acceso aleatorio, una
+     * {@link Lista} en otro caso.
+     */
+    public static <T> Listable<T> crear(boolean accesoAleatorio) {
+        return accesoAleatorio ? new ListaArreglo<T>() : new Lista<T>();
+    }
+
     /**
      * Método que nos dice si las lista está vacía.
      * @return <code>true</code> si el conjunto está vacío, <code>false</code>
@@ -39,6 +58,35 @@ public interface Listable<T> {
      * @param elemento Objeto que se eliminara de la lista.
      */
     public void eliminar(T elemento);
-    
-    
+    /**
+     * Método que devuelve la posición en la lista que tiene la primera
+     * aparición del <code> elemento</code>.
+     * @param elemento El elemento del cuál queremos saber su posición.
+     * @return la posición del elemento en la lista, -1, si no se encuentra en
+     * ésta.
+     */
+    public int indiceDe(T elemento);
+    /**
+     * Método que regresa el elemento en una posición de la lista.
+     * @param i La posición cuyo elemento deseamos conocer.
+     * @return el elemento en esa posición.
+     * @throws IndexOutOfBoundsException Si el índice es < 0 o >= longitud()
+     */
+    public T getElemento(int i) throws IndexOutOfBoundsException;
+    /**
+     * Método que regresa un Stream secuencial sobre los elementos de la
+     * lista, en orden.
+     * @return el Stream de los elementos.
+     */
+    public default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+    /**
+     * Método que regresa un Stream que puede procesar los elementos de la
+     * lista en paralelo, en el pool común de fork-join.
+     * @return el Stream paralelo de los elementos.
+     */
+    public default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
@@ -2,6 +2,7 @@ package mx.unam.fciencias.edd.util;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 /**
  * <p> Clase concreta para modelar la estructura de datos Pila</p>
@@ -218,6 +219,17 @@ public class Pila<T> implements Coleccionable<T> {
         return new IteradorPila();
     }
 
+    /**
+     * Regresa un Spliterator sobre los elementos de la pila, del tope al fondo,
+     * con tamaño exacto y divisiones balanceadas para procesarlos en paralelo.
+     * @return el Spliterator de los elementos.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new SpliteratorNodos<Nodo, T>(tope, elementos, n -> n.siguiente, n -> n.elemento,
+                Spliterator.NONNULL);
+    }
+
     @Override
     public String toString() {
         String s = "[";
@@ -0,0 +1,103 @@
+package mx.unam.fciencias.edd.util;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * <p>Spliterator sobre una cadena de nodos con un número conocido de elementos,
+ * que comparten {@link Lista}, {@link Pila} y {@link Cola}.</p>
+ * <p>Como se sabe cuántos elementos quedan, la división es balanceada: se
+ * avanza hasta el nodo de en medio y cada mitad se queda con la mitad exacta de
+ * los elementos, así que ambas mitades son <code>SIZED</code>. Avanzar hasta la
+ * mitad sólo lee las referencias de los nodos, sin tocar los elementos. La
+ * colección no debe modificarse mientras se recorre.</p>
+ * @param <N> Tipo de los nodos.
+ * @param <T> Tipo de los elementos.
+ */
+class SpliteratorNodos<N, T> implements Spliterator<T> {
+
+    /* Las secciones más chicas que esto ya no se dividen */
+    private static final long MINIMO_DIVISION = 64;
+
+    private N actual;
+    private long restantes;
+    private final UnaryOperator<N> siguiente;
+    private final Function<N, T> elemento;
+    private final int caracteristicas;
+
+    /**
+     * Construye el spliterator.
+     * @param inicio el primer nodo.
+     * @param elementos el número de nodos a recorrer desde el primero.
+     * @param siguiente la función que da el nodo siguiente.
+     * @param elemento la función que da el elemento de un nodo.
+     * @param caracteristicas las características además de <code>ORDERED</code>,
+     * <code>SIZED</code> y <code>SUBSIZED</code>.
+     */
+    SpliteratorNodos(N inicio, long elementos, UnaryOperator<N> siguiente, Function<N, T> elemento,
+            int caracteristicas) {
+        this.actual = inicio;
+        this.restantes = elementos;
+        this.siguiente = siguiente;
+        this.elemento = elemento;
+        this.caracteristicas = caracteristicas | ORDERED | SIZED | SUBSIZED;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> accion) {
+        if (restantes == 0) {
+            return false;
+        }
+        T e = elemento.apply(actual);
+        actual = siguiente.apply(actual);
+        restantes--;
+        accion.accept(e);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> accion) {
+        N nodo = actual;
+        long n = restantes;
+        actual = null;
+        restantes = 0;
+        for (; n > 0; n--) {
+            accion.accept(elemento.apply(nodo));
+            nodo = siguiente.apply(nodo);
+        }
+    }
+
+    /**
+     * Regresa la primera mitad de los elementos restantes y se queda con la
+     * segunda, para conservar el orden.
+     * @return el spliterator de la primera mitad, o <code>null</code> si quedan
+     * muy pocos elementos para dividirlos.
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+        if (restantes < MINIMO_DIVISION) {
+            return null;
+        }
+        long mitad = restantes / 2;
+        N inicio = actual;
+        N nodo = actual;
+        for (long i = 0; i < mitad; i++) {
+            nodo = siguiente.apply(nodo);
+        }
+        actual = nodo;
+        restantes -= mitad;
+        return new SpliteratorNodos<>(inicio, mitad, siguiente, elemento, caracteristicas);
+    }
+
+    @Override
+    public long estimateSize() {
+        return restantes;
+    }
+
+    @Override
+    public int characteristics() {
+        return caracteristicas;
+    }
+}
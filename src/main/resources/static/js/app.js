@@ -37,11 +37,50 @@ let casillaComponente = {
 }
 
 
+/**
+ * El número máximo de casillas que se dibujan en la página; los laberintos más grandes sólo
+ * se ofrecen para descargar, porque dibujar tantas casillas congela el navegador
+ */
+const MAXIMO_CASILLAS_VISTA = 2500;
+
+/**
+ * Decodifica un laberinto en el formato binario application/x-laberinto: un encabezado
+ * de 20 bytes con 'LAB', la versión, el ancho, el alto y la semilla, y después los bits
+ * de paso de cada casilla, dos casillas por byte empezando por los 4 bits bajos
+ * @param {ArrayBuffer} bytes los bytes de la respuesta
+ * @returns un arreglo de filas de casillas, igual al que se obtiene en JSON
+ */
+function decodificarLaberinto(bytes) {
+    let vista = new DataView(bytes);
+    let ancho = vista.getInt32(4);
+    let alto = vista.getInt32(8);
+    let pasos = new Uint8Array(bytes, 20);
+    let laberinto = [];
+    for (let y = 0; y < alto; y++) {
+        let fila = [];
+        for (let x = 0; x < ancho; x++) {
+            let i = y * ancho + x;
+            let paso = (pasos[i >> 1] >> ((i & 1) << 2)) & 0xF;
+            fila.push({
+                norte: (paso & 1) !== 0,
+                sur: (paso & 2) !== 0,
+                este: (paso & 4) !== 0,
+                oeste: (paso & 8) !== 0,
+                x: x,
+                y: y
+            });
+        }
+        laberinto.push(fila);
+    }
+    return laberinto;
+}
 
 let app = new Vue({
     el: '#app',
     data: {
         laberinto: [],
+        id: null,
+        casillasOcultas: 0,
         laberintoEstilo: {
             maxHeight: '',
             maxWidth: ''
@@ -49,10 +88,13 @@ let app = new Vue({
         habilitado: false,
         alto: 30,
         ancho: 30,
+        algoritmo: 'dfs',
+        formato: 'png',
         directorio: '',
         inicio: null,
         fin: null,
         mensajeDirectorio: '',
+        mensajeServidor: '',
         mostrarMensaje: false,
     },
     components: {
@@ -95,20 +137,46 @@ let app = new Vue({
          * Obtiene el laberinto
          */
         obtenerLaberinto() {
-            if (this.alto <= 0 || this.alto > 50 || this.ancho <= 0 || this.ancho > 50) return;
-            let url = `${window.location.href}laberinto?alto=${this.alto}&ancho=${this.ancho}`;
+            if (this.alto <= 0 || this.ancho <= 0) return;
+            let url = `${window.location.href}laberinto?alto=${this.alto}&ancho=${this.ancho}&algoritmo=${this.algoritmo}`;
             let self = this;
-            fetch(url).then(respuesta => {
-                return respuesta.json();
-            }).then(json => {
-                self.laberinto = json;
+            fetch(url, {
+                headers: {
+                    'Accept': 'application/x-laberinto'
+                }
+            }).then(respuesta => {
+                if (respuesta.status == 413 || respuesta.status == 422) {
+                    // El servidor explica qué límite se pasó
+                    return respuesta.json().then(json => {
+                        self.mensajeServidor = `El laberinto es demasiado grande: pasa del límite de ${json.limite}`;
+                        throw new Error();
+                    });
+                }
+                self.mensajeServidor = '';
+                self.id = respuesta.headers.get('Laberinto-Id');
+                self.inicio = null;
+                self.fin = null;
+                let casillas = self.alto * self.ancho;
+                if (casillas > MAXIMO_CASILLAS_VISTA) {
+                    // No se dibuja: se descarta la cuadrícula y sólo se ofrece la descarga
+                    respuesta.body.cancel();
+                    self.laberinto = [];
+                    self.casillasOcultas = casillas;
+                    return;
+                }
+                self.casillasOcultas = 0;
+                return respuesta.arrayBuffer().then(bytes => {
+                    self.laberinto = decodificarLaberinto(bytes);
+                });
+            }).catch(() => {
+
             });
         },
         /**
          * Crea una imagen a partir del laberinto
          */
         crearImagen() {
-            let url = `${window.location.href}laberinto/imagen`;
+            let url = `${window.location.href}laberinto/${this.id}/imagen?formato=${this.formato}`;
             let self = this;
             fetch(url).then(respuesta => {
                 if (respuesta.ok) {
@@ -162,7 +230,7 @@ let app = new Vue({
          * Crea un camino a partir de dos casillas seleccionadas
          */
         crearCamino() {
-            let url = `${window.location.href}laberinto/camino`;
+            let url = `${window.location.href}laberinto/${this.id}/camino`;
             let self = this;
             let data = {
                 x1: this.inicio.x,
@@ -204,12 +272,10 @@ let app = new Vue({
          * Para dar retroalimentación al usuario si los datos ingresados son correctos
          */
         mensajeCasillas(){
-            if(this.alto > 50 || this.ancho > 50){
-                return "El alto y ancho del laberinto no puede superar las 50 casillas";
-            } else if(this.alto < 0 || this.ancho < 0 || isNaN(this.alto) || isNaN(this.ancho)){
+            if(this.alto < 0 || this.ancho < 0 || isNaN(this.alto) || isNaN(this.ancho)){
                 return "La entrada no es válida";
             }
-            return "";
+            return this.mensajeServidor;
         }
     }
 
@@ -0,0 +1,51 @@
+package mx.unam.fciencias.edd.laberinto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import mx.unam.fciencias.edd.laberinto.generador.Algoritmo;
+
+class FormatoBinarioTest {
+
+    @ParameterizedTest
+    @EnumSource(Algoritmo.class)
+    void decodificaLoQueCodifica(Algoritmo algoritmo) {
+        // Tamaños pares e impares, para la Casilla que queda sola en el último byte
+        for (int[] medidas : new int[][] { { 1, 1 }, { 1, 7 }, { 6, 1 }, { 13, 17 }, { 40, 32 } }) {
+            Laberinto laberinto = new Laberinto(medidas[0], medidas[1], algoritmo.getGenerador(), 42L);
+            CuadriculaCompacta original = laberinto.getCuadricula();
+            byte[] bytes = FormatoBinario.codificar(laberinto);
+            assertEquals(FormatoBinario.ENCABEZADO + (original.getTamanio() + 1) / 2, bytes.length);
+            assertEquals(42L, ByteBuffer.wrap(bytes, 12, 8).getLong());
+
+            CuadriculaCompacta decodificada = FormatoBinario.decodificar(bytes);
+            assertEquals(original.getAlto(), decodificada.getAlto());
+            assertEquals(original.getAncho(), decodificada.getAncho());
+            for (int i = 0; i < original.getTamanio(); i++) {
+                assertEquals(original.getPasos(i), decodificada.getPasos(i), "Casilla " + i);
+            }
+            assertEquals(original.huella(), decodificada.huella());
+            assertArrayEquals(original.digesto(), decodificada.digesto());
+        }
+    }
+
+    @Test
+    void rechazaBytesSinFormato() {
+        byte[] bytes = FormatoBinario.codificar(new Laberinto(5, 5, Algoritmo.DFS.getGenerador(), 3L));
+        assertThrows(IllegalArgumentException.class,
+                () -> FormatoBinario.decodificar(Arrays.copyOf(bytes, FormatoBinario.ENCABEZADO - 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> FormatoBinario.decodificar(Arrays.copyOf(bytes, bytes.length - 1)));
+        byte[] otraVersion = bytes.clone();
+        otraVersion[3] = FormatoBinario.VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> FormatoBinario.decodificar(otraVersion));
+    }
+}
@@ -0,0 +1,95 @@
+package mx.unam.fciencias.edd.laberinto.generador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+import mx.unam.fciencias.edd.util.IntCola;
+
+class GeneradorParaleloTest {
+
+    private static final ForkJoinPool UN_HILO = new ForkJoinPool(1);
+    private static final ForkJoinPool TRES_HILOS = new ForkJoinPool(3);
+
+    @AfterAll
+    static void terminar() {
+        UN_HILO.shutdown();
+        TRES_HILOS.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Algoritmo.class)
+    void generaArbolesDeterministas(Algoritmo algoritmo) {
+        // Tamaños que no se dividen exacto en regiones, y regiones de una sola fila o columna
+        int[][] medidas = { { 1, 1 }, { 1, 50 }, { 37, 5 }, { 100, 101 }, { 7, 513 } };
+        for (int[] medida : medidas) {
+            for (int lado : new int[] { 2, 3, 16 }) {
+                CuadriculaCompacta uno = generar(algoritmo, UN_HILO, lado, medida[0], medida[1]);
+                CuadriculaCompacta tres = generar(algoritmo, TRES_HILOS, lado, medida[0], medida[1]);
+                revisarArbol(uno);
+                assertEquals(uno.huella(), tres.huella(), "El laberinto depende del número de hilos");
+            }
+        }
+    }
+
+    @Test
+    void unaSolaRegionUsaElGeneradorBase() {
+        CuadriculaCompacta paralela = generar(Algoritmo.KRUSKAL, TRES_HILOS, 16, 16, 16);
+        CuadriculaCompacta base = new CuadriculaCompacta(16, 16);
+        Algoritmo.KRUSKAL.getGenerador().generar(base, new SplittableRandom(7));
+        assertEquals(base.huella(), paralela.huella());
+    }
+
+    @Test
+    void rechazaRegionesDeUnaCasilla() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new GeneradorParalelo(Algoritmo.DFS.getGenerador(), UN_HILO, 1));
+    }
+
+    private static CuadriculaCompacta generar(Algoritmo algoritmo, ForkJoinPool pool, int lado, int alto, int ancho) {
+        CuadriculaCompacta cuadricula = new CuadriculaCompacta(alto, ancho);
+        new GeneradorParalelo(algoritmo.getGenerador(), pool, lado).generar(cuadricula, new SplittableRandom(7));
+        return cuadricula;
+    }
+
+    /**
+     * Revisa que la cuadrícula sea un árbol: tiene una Casilla menos de pasos y todas las Casillas
+     * se alcanzan desde la primera
+     */
+    private static void revisarArbol(CuadriculaCompacta cuadricula) {
+        int tamanio = cuadricula.getTamanio();
+        int pasos = 0;
+        for (int i = 0; i < tamanio; i++) {
+            pasos += cuadricula.hayPaso(i, Direccion.ESTE) ? 1 : 0;
+            pasos += cuadricula.hayPaso(i, Direccion.NORTE) ? 1 : 0;
+        }
+        assertEquals(tamanio - 1, pasos);
+
+        boolean[] alcanzadas = new boolean[tamanio];
+        IntCola cola = new IntCola();
+        cola.queue(0);
+        alcanzadas[0] = true;
+        int total = 1;
+        while (!cola.esVacio()) {
+            int actual = cola.dequeue();
+            for (Direccion direccion : Direccion.values()) {
+                int vecino = cuadricula.vecino(actual, direccion);
+                if (vecino >= 0 && cuadricula.hayPaso(actual, direccion) && !alcanzadas[vecino]) {
+                    alcanzadas[vecino] = true;
+                    total++;
+                    cola.queue(vecino);
+                }
+            }
+        }
+        assertEquals(tamanio, total);
+    }
+}
@@ -0,0 +1,130 @@
+package mx.unam.fciencias.edd.laberinto.imagen;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Laberinto;
+import mx.unam.fciencias.edd.laberinto.generador.Algoritmo;
+
+class LaberintoFlujoTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+    @AfterAll
+    static void terminar() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void elPngTieneLosPixelesDeGraphics2D() throws IOException {
+        MedidasImagen[] medidas = { MedidasImagen.POR_OMISION, MedidasImagen.proporcionales(7),
+                new MedidasImagen(1, 1), new MedidasImagen(3, 8) };
+        int[] niveles = { Deflater.DEFAULT_COMPRESSION, Deflater.NO_COMPRESSION, Deflater.BEST_SPEED,
+                Deflater.BEST_COMPRESSION };
+        CuadriculaCompacta cuadricula = new Laberinto(13, 21, Algoritmo.KRUSKAL.getGenerador(), 5L).getCuadricula();
+        for (MedidasImagen medida : medidas) {
+            int[] esperado = pixeles(dibujarGraphics2D(cuadricula, medida));
+            for (int nivel : niveles) {
+                for (Executor paralelo : new Executor[] { null, POOL }) {
+                    ByteArrayOutputStream salida = new ByteArrayOutputStream();
+                    LaberintoFlujo.escribirPng(cuadricula, salida, medida, nivel, paralelo, null);
+                    BufferedImage leida = ImageIO.read(new ByteArrayInputStream(salida.toByteArray()));
+                    assertEquals(medida.getAnchoImagen(cuadricula.getAncho()), leida.getWidth());
+                    assertEquals(medida.getAltoImagen(cuadricula.getAlto()), leida.getHeight());
+                    assertArrayEquals(esperado, pixeles(leida), medida + ", nivel " + nivel);
+                }
+            }
+        }
+    }
+
+    @Test
+    void comprimeEnVariosBloques() throws IOException {
+        // Una imagen de varios MB, para que la compresión en paralelo la reparta en bloques
+        CuadriculaCompacta cuadricula = new Laberinto(60, 60, Algoritmo.DFS.getGenerador(), 9L).getCuadricula();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        LaberintoFlujo.escribirPng(cuadricula, salida, MedidasImagen.POR_OMISION, Deflater.BEST_SPEED, POOL, null);
+        BufferedImage leida = ImageIO.read(new ByteArrayInputStream(salida.toByteArray()));
+        assertArrayEquals(pixeles(dibujarGraphics2D(cuadricula, MedidasImagen.POR_OMISION)), pixeles(leida));
+    }
+
+    @Test
+    void generaElMismoLaberintoQueEller() throws IOException {
+        CuadriculaCompacta cuadricula = new Laberinto(17, 11, Algoritmo.ELLER.getGenerador(), 123L).getCuadricula();
+        ByteArrayOutputStream generado = new ByteArrayOutputStream();
+        LaberintoFlujo.escribirPng(17, 11, 123L, generado, Deflater.DEFAULT_COMPRESSION, null);
+        ByteArrayOutputStream dibujado = new ByteArrayOutputStream();
+        LaberintoFlujo.escribirPng(cuadricula, dibujado, MedidasImagen.POR_OMISION, Deflater.DEFAULT_COMPRESSION,
+                null, null);
+        assertArrayEquals(dibujado.toByteArray(), generado.toByteArray());
+    }
+
+    /**
+     * Los colores sin el byte alfa, que Graphics2D guarda y ImageIO regresa
+     */
+    private static int[] pixeles(BufferedImage imagen) {
+        int[] pixeles = imagen.getRGB(0, 0, imagen.getWidth(), imagen.getHeight(), null, 0, imagen.getWidth());
+        for (int i = 0; i < pixeles.length; i++) {
+            pixeles[i] &= 0xFFFFFF;
+        }
+        return pixeles;
+    }
+
+    /**
+     * Dibuja la imagen Casilla por Casilla con Graphics2D, como lo hacía LaberintoImage
+     */
+    private static BufferedImage dibujarGraphics2D(CuadriculaCompacta cuadricula, MedidasImagen medidas) {
+        int longitudCasilla = medidas.getLongitudCasilla();
+        int borde = medidas.getBorde();
+        int ancho = (int) medidas.getAnchoImagen(cuadricula.getAncho());
+        int alto = (int) medidas.getAltoImagen(cuadricula.getAlto());
+        BufferedImage imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = imagen.createGraphics();
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, ancho, alto);
+        g2d.setColor(Color.RED);
+        g2d.fillRect(0, 0, medidas.getMarca(), medidas.getMarca());
+        g2d.setColor(Color.WHITE);
+        for (int y = 0; y < cuadricula.getAlto(); y++) {
+            for (int x = 0; x < cuadricula.getAncho(); x++) {
+                int pasos = cuadricula.getPasos(cuadricula.indice(x, y));
+                int xPosicion = x * (longitudCasilla + borde) + borde;
+                int yPosicion = y * (longitudCasilla + borde) + borde;
+                int anchoCasilla = longitudCasilla;
+                int altoCasilla = longitudCasilla;
+                if ((pasos & CuadriculaCompacta.SUR) != 0) {
+                    yPosicion -= borde;
+                    altoCasilla += borde;
+                }
+                if ((pasos & CuadriculaCompacta.NORTE) != 0) {
+                    altoCasilla += borde;
+                }
+                if ((pasos & CuadriculaCompacta.OESTE) != 0) {
+                    xPosicion -= borde;
+                    anchoCasilla += borde;
+                }
+                if ((pasos & CuadriculaCompacta.ESTE) != 0) {
+                    anchoCasilla += borde;
+                }
+                g2d.fillRect(xPosicion, yPosicion, anchoCasilla, altoCasilla);
+            }
+        }
+        g2d.dispose();
+        return imagen;
+    }
+}
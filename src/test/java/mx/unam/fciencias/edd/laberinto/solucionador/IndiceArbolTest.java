@@ -0,0 +1,55 @@
+package mx.unam.fciencias.edd.laberinto.solucionador;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import mx.unam.fciencias.edd.laberinto.CuadriculaCompacta;
+import mx.unam.fciencias.edd.laberinto.Direccion;
+import mx.unam.fciencias.edd.laberinto.Laberinto;
+import mx.unam.fciencias.edd.laberinto.generador.Algoritmo;
+
+class IndiceArbolTest {
+
+    @ParameterizedTest
+    @EnumSource(Algoritmo.class)
+    void distanciaYCaminoIgualesQueBfs(Algoritmo algoritmo) {
+        SplittableRandom r = new SplittableRandom(algoritmo.ordinal());
+        for (int[] medidas : new int[][] { { 1, 1 }, { 1, 40 }, { 37, 1 }, { 23, 31 }, { 64, 64 } }) {
+            CuadriculaCompacta cuadricula = new Laberinto(medidas[0], medidas[1], algoritmo.getGenerador(),
+                    r.nextLong()).getCuadricula();
+            IndiceArbol indice = new IndiceArbol(cuadricula);
+            Solucionador bfs = Busqueda.BFS.getSolucionador();
+            for (int i = 0; i < 200; i++) {
+                int inicio = r.nextInt(cuadricula.getTamanio());
+                int fin = r.nextInt(cuadricula.getTamanio());
+                int[] camino = bfs.resolver(cuadricula, inicio, fin);
+                assertEquals(camino.length - 1, indice.distancia(inicio, fin));
+                assertArrayEquals(camino, indice.resolver(cuadricula, inicio, fin));
+            }
+        }
+    }
+
+    @Test
+    void rechazaLaberintosConCiclos() {
+        CuadriculaCompacta cuadricula = new Laberinto(10, 10, Algoritmo.KRUSKAL.getGenerador(), 1L).getCuadricula();
+        for (int i = 0; i < cuadricula.getTamanio(); i++) {
+            if (!cuadricula.hayPaso(i, Direccion.ESTE) && cuadricula.vecino(i, Direccion.ESTE) >= 0) {
+                cuadricula.conectar(i, Direccion.ESTE);
+                break;
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new IndiceArbol(cuadricula));
+    }
+
+    @Test
+    void rechazaLaberintosNoConexos() {
+        assertThrows(IllegalArgumentException.class, () -> new IndiceArbol(new CuadriculaCompacta(3, 3)));
+    }
+}
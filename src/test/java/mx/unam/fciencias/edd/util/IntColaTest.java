@@ -0,0 +1,75 @@
+package mx.unam.fciencias.edd.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+class IntColaTest {
+
+    @Test
+    void creceConElInicioDespuesDelRabo() {
+        IntCola cola = new IntCola(4);
+        ArrayDeque<Integer> esperado = new ArrayDeque<>();
+        int siguiente = 0;
+        // Deja el inicio a la mitad del arreglo para que el rabo dé la vuelta antes de crecer
+        for (int i = 0; i < 4; i++) {
+            cola.queue(siguiente);
+            esperado.add(siguiente++);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(esperado.remove(), cola.dequeue());
+        }
+        for (int i = 0; i < 3; i++) {
+            cola.queue(siguiente);
+            esperado.add(siguiente++);
+        }
+        assertEquals(4, cola.getCapacidad());
+        cola.queue(siguiente);
+        esperado.add(siguiente++);
+        assertEquals(8, cola.getCapacidad());
+        assertEquals(esperado.toString().replace(" ", ""), cola.toString());
+        // Varias vueltas y crecimientos mezclando las dos operaciones
+        for (int i = 0; i < 1000; i++) {
+            cola.queue(siguiente);
+            esperado.add(siguiente++);
+            if (i % 3 == 0) {
+                assertEquals(esperado.remove(), cola.dequeue());
+            }
+        }
+        assertEquals(esperado.size(), cola.getTamanio());
+        while (!esperado.isEmpty()) {
+            assertEquals(esperado.peek(), cola.peek());
+            assertEquals(esperado.remove(), cola.dequeue());
+        }
+        assertTrue(cola.esVacio());
+    }
+
+    @Test
+    void vaciaLanzaExcepcion() {
+        IntCola cola = new IntCola();
+        assertThrows(NoSuchElementException.class, cola::dequeue);
+        assertThrows(NoSuchElementException.class, cola::peek);
+        cola.queue(1);
+        cola.dequeue();
+        assertThrows(NoSuchElementException.class, cola::dequeue);
+        cola.queue(2);
+        cola.limpia();
+        assertTrue(cola.esVacio());
+        assertThrows(NoSuchElementException.class, cola::peek);
+    }
+
+    @Test
+    void capacidadNegativaLanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> new IntCola(-1));
+        IntCola cola = new IntCola(0);
+        cola.queue(7);
+        cola.queue(8);
+        assertEquals(7, cola.dequeue());
+        assertEquals(8, cola.dequeue());
+    }
+}
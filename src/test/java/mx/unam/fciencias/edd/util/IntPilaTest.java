@@ -0,0 +1,62 @@
+package mx.unam.fciencias.edd.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+class IntPilaTest {
+
+    @Test
+    void creceConservandoElOrden() {
+        IntPila pila = new IntPila(1);
+        ArrayDeque<Integer> esperado = new ArrayDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            pila.push(i);
+            esperado.push(i);
+            if (i % 4 == 0) {
+                assertEquals(esperado.pop(), pila.pop());
+            }
+        }
+        assertEquals(esperado.size(), pila.getTamanio());
+        while (!esperado.isEmpty()) {
+            assertEquals(esperado.peek(), pila.peek());
+            assertEquals(esperado.pop(), pila.pop());
+        }
+        assertTrue(pila.esVacio());
+    }
+
+    @Test
+    void vaciaLanzaExcepcion() {
+        IntPila pila = new IntPila();
+        assertThrows(NoSuchElementException.class, pila::pop);
+        assertThrows(NoSuchElementException.class, pila::peek);
+        pila.push(1);
+        pila.pop();
+        assertThrows(NoSuchElementException.class, pila::pop);
+        pila.push(2);
+        pila.limpia();
+        assertTrue(pila.esVacio());
+        assertThrows(NoSuchElementException.class, pila::peek);
+    }
+
+    @Test
+    void capacidadNegativaLanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> new IntPila(-1));
+        IntPila pila = new IntPila(0);
+        pila.push(3);
+        pila.push(4);
+        assertEquals("[4,3]", pila.toString());
+    }
+
+    @Test
+    void crecerNoPasaDelMaximo() {
+        assertEquals(32, IntPila.crecer(16));
+        assertEquals(Integer.MAX_VALUE - 8, IntPila.crecer(Integer.MAX_VALUE / 2 + 1));
+        assertThrows(OutOfMemoryError.class, () -> IntPila.crecer(Integer.MAX_VALUE - 8));
+    }
+}
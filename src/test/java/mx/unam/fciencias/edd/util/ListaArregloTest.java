@@ -0,0 +1,84 @@
+package mx.unam.fciencias.edd.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+class ListaArregloTest {
+
+    private static ListaArreglo<String> crear(String... elementos) {
+        ListaArreglo<String> lista = new ListaArreglo<>(1);
+        for (String elemento : elementos) {
+            lista.agregar(elemento);
+        }
+        return lista;
+    }
+
+    @Test
+    void eliminarPoneAlUltimoEnSuLugar() {
+        ListaArreglo<String> lista = crear("a", "b", "c", "b", "d");
+        lista.eliminar("b");
+        assertEquals("[a,d,c,b]", lista.toString());
+        lista.eliminar("x");
+        assertEquals(4, lista.longitud());
+        lista.eliminar("b");
+        assertEquals("[a,d,c]", lista.toString());
+        assertFalse(lista.contiene("b"));
+    }
+
+    @Test
+    void eliminarEnRegresaElElemento() {
+        ListaArreglo<String> lista = crear("a", "b", "c", "d");
+        assertEquals("a", lista.eliminarEn(0));
+        assertEquals("[d,b,c]", lista.toString());
+        assertEquals("c", lista.eliminarEn(2));
+        assertEquals("[d,b]", lista.toString());
+        assertEquals("b", lista.eliminarEn(1));
+        assertEquals("d", lista.eliminarEn(0));
+        assertTrue(lista.esVacia());
+        assertThrows(IndexOutOfBoundsException.class, () -> lista.eliminarEn(0));
+        lista.agregar("e");
+        assertThrows(IndexOutOfBoundsException.class, () -> lista.eliminarEn(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> lista.eliminarEn(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> lista.getElemento(1));
+        assertEquals("e", lista.getElemento(0));
+    }
+
+    @Test
+    void indiceDeNullEsMenosUno() {
+        ListaArreglo<String> lista = crear("a", null, "b");
+        assertEquals(-1, lista.indiceDe(null));
+        assertFalse(lista.contiene(null));
+        lista.eliminar(null);
+        assertEquals(3, lista.longitud());
+        assertEquals(2, lista.indiceDe("b"));
+        assertEquals(-1, lista.indiceDe("c"));
+    }
+
+    @Test
+    void iteradorDetectaModificaciones() {
+        ListaArreglo<String> lista = crear("a", "b", "c");
+        Iterator<String> iterador = lista.iterator();
+        assertEquals("a", iterador.next());
+        lista.eliminarEn(0);
+        assertThrows(ConcurrentModificationException.class, iterador::next);
+        assertEquals("c,b", String.join(",", lista.stream().toList()));
+        lista.vaciar();
+        assertTrue(lista.esVacia());
+        assertEquals(crear(), lista);
+    }
+
+    @Test
+    void crearEligeLaImplementacion() {
+        assertInstanceOf(ListaArreglo.class, Listable.crear(true));
+        assertInstanceOf(Lista.class, Listable.crear(false));
+        assertThrows(IllegalArgumentException.class, () -> new ListaArreglo<String>(-1));
+    }
+}
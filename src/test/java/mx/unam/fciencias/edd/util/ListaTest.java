@@ -0,0 +1,109 @@
+package mx.unam.fciencias.edd.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class ListaTest {
+
+    /**
+     * Un elemento con una llave que se repite; sin equals, así que cada uno sólo es igual a sí mismo
+     */
+    private static class Elemento {
+        private final int llave;
+
+        private Elemento(int llave) {
+            this.llave = llave;
+        }
+    }
+
+    private static final Comparator<Elemento> POR_LLAVE = Comparator.comparingInt(e -> e.llave);
+
+    @Test
+    void ordenarEsEstableYEnlazaLaLista() {
+        for (int longitud : new int[] { 0, 1, 2, 3, 17, 1000, Lista.UMBRAL_PARALELO + 1 }) {
+            List<Elemento> esperado = new ArrayList<>();
+            Lista<Elemento> lista = crear(longitud, esperado);
+            lista.ordenar(POR_LLAVE);
+            esperado.sort(POR_LLAVE);
+            revisar(esperado, lista);
+        }
+    }
+
+    @Test
+    void ordenarParaleloEsEstableYEnlazaLaLista() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int longitud : new int[] { 5, Lista.UMBRAL_PARALELO, 2 * Lista.UMBRAL_PARALELO + 37 }) {
+                List<Elemento> esperado = new ArrayList<>();
+                Lista<Elemento> lista = crear(longitud, esperado);
+                lista.ordenarParalelo(POR_LLAVE, pool);
+                esperado.sort(POR_LLAVE);
+                revisar(esperado, lista);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void mergesortNoCambiaLaOriginal() {
+        int[] original = { 5, 3, 9, 1, 3 };
+        int[] esperado = { 1, 3, 3, 5, 9 };
+        Lista<Integer> lista = new Lista<>();
+        for (int i : original) {
+            lista.agregar(i);
+        }
+        Lista<Integer> ordenada = Lista.mergesort(lista);
+        for (int i = 0; i < original.length; i++) {
+            assertEquals(esperado[i], ordenada.getElemento(i));
+            assertEquals(original[i], lista.getElemento(i));
+        }
+    }
+
+    /**
+     * Crea una lista con llaves al azar que se repiten mucho, y la misma secuencia en esperado
+     */
+    private static Lista<Elemento> crear(int longitud, List<Elemento> esperado) {
+        SplittableRandom r = new SplittableRandom(longitud);
+        Lista<Elemento> lista = new Lista<>();
+        for (int i = 0; i < longitud; i++) {
+            Elemento elemento = new Elemento(r.nextInt(50));
+            lista.agregar(elemento);
+            esperado.add(elemento);
+        }
+        return lista;
+    }
+
+    /**
+     * Revisa que la lista tenga los mismos elementos en el mismo orden, recorriéndola hacia adelante
+     * y hacia atrás, y que después de ordenarla se le pueda agregar al final y quitar la cola
+     */
+    private static void revisar(List<Elemento> esperado, Lista<Elemento> lista) {
+        assertEquals(esperado.size(), lista.longitud());
+        Iterator<Elemento> iterador = lista.iterator();
+        for (Elemento elemento : esperado) {
+            assertSame(elemento, iterador.next());
+        }
+
+        Elemento nuevo = new Elemento(-1);
+        lista.agregar(nuevo);
+        assertSame(nuevo, lista.getElemento(lista.longitud() - 1));
+        lista.eliminar(nuevo);
+
+        // Quitar la cola la mueve a su anterior, así que se recorren todos los enlaces hacia atrás
+        for (int i = esperado.size() - 1; i >= 0; i--) {
+            assertSame(esperado.get(i), lista.getElemento(i));
+            lista.eliminar(esperado.get(i));
+        }
+        assertEquals(0, lista.longitud());
+    }
+}